@@ -1,648 +1,7109 @@
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collections;
-import java.util.Deque;
-
-import tester.*;
-import javalib.impworld.*;
-import java.awt.Color;
-import javalib.worldimages.*;
-import java.util.HashMap;
-import java.util.LinkedList;
-import java.util.Random;
-
-/* Instructions to play the game:
- * 
- * Press the 'R' key to reset the maze game and design a new random maze
- * Press the 'B' key to find the path using the Breadth-First Search algorithm
- * Press the 'D' key to find the path using the Depth-First Search algorithm
- * Use the arrow keys to manually traverse through the maze
- * 
- */
-
-class Cell {
-  int x;
-  int y;
-  ArrayList<Edge> edges;
-
-  Cell(int x, int y) {
-    this.x = x;
-    this.y = y;
-    this.edges = new ArrayList<Edge>();
-  }
-
-  // draws the cell as a worldimage
-  WorldImage drawCell(int cellSize) {
-    return this.drawCell(cellSize, Color.LIGHT_GRAY);
-  }
-
-  // draws the cell as a worldimage
-  WorldImage drawCell(int cellSize, Color c) {
-    return new RectangleImage(cellSize - 2, cellSize - 2, OutlineMode.SOLID, c);
-  }
-
-  // is the given cell connected to this cell?
-  public boolean containsNeighbor(Cell c) {
-    for (Edge e : this.edges) {
-      if (e.findNode(this).equals(c)) {
-        return true;
-      }
-    }
-    return false;
-  }
-}
-
-// to represent a connection between two cells
-class Edge implements Comparable<Edge> {
-  Cell node1;
-  Cell node2;
-  int weight;
-
-  Edge(Cell node1, Cell node2) {
-    this.node1 = node1;
-    this.node2 = node2;
-    this.weight = new Random().nextInt(100);
-  }
-
-  // if you pass in a specific node it gives the other node
-  Cell findNode(Cell node) {
-    if (node == node1) {
-      return node2;
-    }
-    else {
-      return node1;
-    }
-  }
-
-  // comparator method
-  public int compareTo(Edge e) {
-    return this.weight - e.weight;
-  }
-
-  // draw the edge
-  public WorldImage drawEdge(int cellSize) {
-    return new RectangleImage(cellSize - 2, cellSize - 2, OutlineMode.SOLID, Color.LIGHT_GRAY);
-  }
-}
-
-// world class OwO
-class MazeGame extends World {
-  ArrayList<ArrayList<Cell>> board;
-  int width;
-  int height;
-  ArrayList<Edge> edges;
-  ArrayList<Cell> searched;
-  ArrayList<Cell> playerSearched;
-  int searchedCounter;
-  ArrayList<Cell> correctPath;
-  Cell currentCell;
-  boolean solved;
-
-  static int TOTAL_WIDTH = 1000;
-  static int TOTAL_HEIGHT = 600;
-
-  MazeGame(int width, int height) {
-    this.width = width;
-    this.height = height;
-    this.board = this.makeBoard();
-    this.edges = this.kruskal();
-    this.connectEdgesToCells();
-    this.searched = new ArrayList<Cell>();
-    this.searchedCounter = 0;
-    this.correctPath = new ArrayList<Cell>();
-    this.currentCell = this.board.get(0).get(0);
-    this.solved = false;
-    this.playerSearched = new ArrayList<Cell>();
-    this.playerSearched.add(this.currentCell);
-  }
-
-  // creates a board of cells
-  public ArrayList<ArrayList<Cell>> makeBoard() {
-    ArrayList<ArrayList<Cell>> board = new ArrayList<ArrayList<Cell>>();
-    for (int col = 0; col < this.width; col++) {
-
-      ArrayList<Cell> column = new ArrayList<Cell>();
-      for (int row = 0; row < this.height; row++) {
-
-        column.add(new Cell(col, row));
-      }
-      board.add(column);
-    }
-    return board;
-  }
-
-  // make all possible edges and sort them
-  public ArrayList<Edge> makeEdges() {
-    ArrayList<Edge> totalEdges = new ArrayList<Edge>();
-    for (int i = 0; i < this.width; i++) {
-      for (int j = 0; j < this.height; j++) {
-        if (i < this.width - 1) {
-          totalEdges.add(new Edge(this.board.get(i).get(j), this.board.get(i + 1).get(j)));
-        }
-        if (j < this.height - 1) {
-          totalEdges.add(new Edge(this.board.get(i).get(j), this.board.get(i).get(j + 1)));
-        }
-      }
-    }
-    Collections.sort(totalEdges);
-    return totalEdges;
-  }
-
-  // connect edges to cells
-  public void connectEdgesToCells() {
-    for (Edge e : this.edges) {
-      e.node1.edges.add(e);
-      e.node2.edges.add(e);
-    }
-  }
-
-  // make a minimum spanning tree using kruskal's algorithm
-  public ArrayList<Edge> kruskal() {
-    ArrayList<Edge> totalEdges = this.makeEdges();
-    ArrayList<Edge> edgesInTree = new ArrayList<Edge>();
-    HashMap<Cell, Cell> cellMap = new HashMap<Cell, Cell>();
-
-    for (ArrayList<Cell> column : this.board) {
-      for (Cell c : column) {
-        cellMap.put(c, c);
-      }
-    }
-    while (edgesInTree.size() < this.width * this.height - 1) {
-      Edge e = totalEdges.remove(0);
-      // are these two connected already?
-      if (this.unionFind(cellMap, e.node1).equals(this.unionFind(cellMap, e.node2))) {
-        continue;
-      }
-      else {
-        // they aren't connected so put them in the cell map and now they are connected
-        edgesInTree.add(e);
-        cellMap.put(this.unionFind(cellMap, e.node1), this.unionFind(cellMap, e.node2));
-      }
-    }
-    return edgesInTree;
-  }
-
-  // finds the cell in a hashmap that refers to itself
-  public Cell unionFind(HashMap<Cell, Cell> map, Cell key) {
-    if (map.get(key).equals(key)) {
-      return key;
-    }
-    else {
-      return this.unionFind(map, map.get(key));
-    }
-  }
-
-  // search method using either DFS or BFS
-  void search(boolean isDfs) {
-    HashMap<Cell, Cell> cameFromEdge = new HashMap<Cell, Cell>();
-    Deque<Cell> worklist = new LinkedList<Cell>();
-    ArrayList<Cell> seen = new ArrayList<Cell>();
-    worklist.add(this.board.get(0).get(0));
-
-    while (worklist.size() > 0) {
-      Cell next = worklist.removeFirst();
-      if (seen.contains(next)) {
-        continue;
-      }
-      else if (next.equals(this.board.get(width - 1).get(height - 1))) {
-        seen.add(next);
-        this.searched = seen;
-        this.correctPath = this.reconstruct(cameFromEdge, next);
-        this.correctPath.add(this.board.get(0).get(0));
-        return;
-      }
-      else {
-        seen.add(next);
-        for (Edge e : next.edges) {
-          if (isDfs) {
-            worklist.addFirst(e.findNode(next));
-            if (!seen.contains(e.findNode(next))) {
-              cameFromEdge.put(e.findNode(next), next);
-            }
-          }
-          else {
-            worklist.add(e.findNode(next));
-            if (!seen.contains(e.findNode(next))) {
-              cameFromEdge.put(e.findNode(next), next);
-            }
-          }
-        }
-      }
-    }
-  }
-
-  // reconstruct the right path
-  public ArrayList<Cell> reconstruct(HashMap<Cell, Cell> cameFromEdge, Cell c) {
-    ArrayList<Cell> pathSoFar = new ArrayList<Cell>();
-    while (!c.equals(this.board.get(0).get(0))) {
-      pathSoFar.add(c);
-      c = cameFromEdge.get(c);
-    }
-    return pathSoFar;
-  }
-
-  // updates the player's path
-  public void updatePlayerPath(Cell n) {
-    if (this.currentCell.containsNeighbor(n)) {
-      this.playerSearched.add(n);
-      this.currentCell = n;
-    }
-    if (this.currentCell.equals(this.board.get(this.width - 1).get(this.height - 1))) {
-      this.solved = true;
-    }
-  }
-
-  // display the current game message
-  public String gameMessage() {
-    if (this.solved) {
-      return "The maze has been solved :)";
-    }
-    else {
-      return "The maze has not been solved :(";
-    }
-  }
-
-  // make scene
-  public WorldScene makeScene() {
-    WorldScene ws = this.getEmptyScene();
-    int cellSize = MazeGame.TOTAL_WIDTH / this.width;
-    int offset = cellSize / 2;
-    ws.placeImageXY(new RectangleImage(MazeGame.TOTAL_WIDTH, MazeGame.TOTAL_HEIGHT,
-        OutlineMode.SOLID, Color.DARK_GRAY), MazeGame.TOTAL_WIDTH / 2, MazeGame.TOTAL_HEIGHT / 2);
-
-    // draw the blank board with just cells, no edges
-    for (ArrayList<Cell> column : this.board) {
-      for (Cell c : column) {
-        ws.placeImageXY(c.drawCell(cellSize), (c.x * cellSize + offset), (c.y * cellSize + offset));
-      }
-    }
-
-    // draw the edges into the board
-    for (Edge e : this.edges) {
-      ws.placeImageXY(e.drawEdge(cellSize), (e.node1.x + e.node2.x) * cellSize / 2 + offset,
-          (e.node1.y + e.node2.y) * cellSize / 2 + offset);
-    }
-
-    // draws every single player searched cell so far
-    for (int i = 0; i < this.playerSearched.size(); i++) {
-      Cell c = this.playerSearched.get(i);
-      ws.placeImageXY(c.drawCell(cellSize, Color.CYAN), (c.x * cellSize + offset),
-          (c.y * cellSize + offset));
-    }
-
-    // draws every single DFS or BFS searched cell so far
-    for (int i = 0; i < this.searchedCounter && i < this.searched.size(); i++) {
-      Cell c = this.searched.get(i);
-      ws.placeImageXY(c.drawCell(cellSize, Color.CYAN), (c.x * cellSize + offset),
-          (c.y * cellSize + offset));
-    }
-    // draw the current cell that we are on
-    ws.placeImageXY(this.currentCell.drawCell(cellSize, Color.BLUE),
-        (this.currentCell.x * cellSize + offset), (this.currentCell.y * cellSize + offset));
-
-    // draw the final correct path for when the user uses BFS or DFS and the answer
-    // is found
-    if (this.searchedCounter == this.searched.size()) {
-      for (Cell c : this.correctPath) {
-        ws.placeImageXY(c.drawCell(cellSize, Color.BLUE), (c.x * cellSize + offset),
-            (c.y * cellSize + offset));
-      }
-    }
-    // the player found the end of the maze so it displays the correctPath
-    if (this.solved) {
-      for (Cell c : this.correctPath) {
-        ws.placeImageXY(c.drawCell(cellSize, Color.BLUE), (c.x * cellSize + offset),
-            (c.y * cellSize + offset));
-      }
-    }
-    ws.placeImageXY(new TextImage(this.gameMessage(), 20, Color.BLACK), cellSize * this.width / 2,
-        cellSize * this.height + offset);
-    return ws;
-  }
-
-  // key event handler
-  public void onKeyEvent(String s) {
-    if (s.equals("d")) {
-      this.search(true);
-      this.searchedCounter = 0;
-    }
-    else if (s.equals("b")) {
-      this.search(false);
-      this.searchedCounter = 0;
-    }
-    else if (s.equals("r")) {
-      this.board = this.makeBoard();
-      this.edges = this.kruskal();
-      this.connectEdgesToCells();
-      this.searched = new ArrayList<Cell>();
-      this.searchedCounter = 0;
-      this.correctPath = new ArrayList<Cell>();
-      this.currentCell = this.board.get(0).get(0);
-      this.solved = false;
-      this.playerSearched = new ArrayList<Cell>();
-      this.playerSearched.add(this.currentCell);
-    }
-    else if (!solved) {
-      if (s.equals("up") && this.currentCell.y > 0) {
-        Cell neighbor = this.board.get(this.currentCell.x).get(this.currentCell.y - 1);
-        this.updatePlayerPath(neighbor);
-      }
-      else if (s.equals("down") && this.currentCell.y < this.height - 1) {
-        Cell neighbor = this.board.get(this.currentCell.x).get(this.currentCell.y + 1);
-        this.updatePlayerPath(neighbor);
-      }
-      else if (s.equals("left") && this.currentCell.x > 0) {
-        Cell neighbor = this.board.get(this.currentCell.x - 1).get(this.currentCell.y);
-        this.updatePlayerPath(neighbor);
-      }
-      else if (s.equals("right") && this.currentCell.x < this.width - 1) {
-        Cell neighbor = this.board.get(this.currentCell.x + 1).get(this.currentCell.y);
-        this.updatePlayerPath(neighbor);
-      }
-    }
-  }
-
-  // on tick handler
-  public void onTick() {
-    this.searchedCounter = Math.min(this.searchedCounter + 1, this.searched.size());
-    if (this.searchedCounter == this.searched.size() && this.searchedCounter != 0) {
-      this.solved = true;
-    }
-    else if (this.board.get(this.width - 1).get(this.height - 1).equals(this.currentCell)) {
-      this.search(true);
-      this.searched = new ArrayList<Cell>();
-      this.solved = true;
-    }
-  }
-}
-
-// examples class
-class ExamplesMaze {
-  MazeGame exampleWorld;
-  Cell cell1;
-  Cell cell2;
-  Cell exampleCell;
-  Cell exampleCell2;
-  Cell exampleCell3;
-  Cell exampleCell4;
-  Edge exampleEdge;
-  Edge exampleEdge2;
-  Edge exampleEdge3;
-  MazeGame owo;
-  MazeGame next;
-  HashMap<Cell, Cell> exampleCameFromEdge;
-
-  void initData() {
-    this.cell1 = new Cell(4, 5);
-    this.cell2 = new Cell(0, 3);
-    this.exampleCell = new Cell(0, 0);
-    this.exampleCell2 = new Cell(1, 0);
-    this.exampleCell3 = new Cell(0, 1);
-    this.exampleCell4 = new Cell(1, 1);
-    this.exampleEdge = new Edge(this.exampleCell, this.exampleCell2);
-    this.exampleEdge2 = new Edge(this.exampleCell2, this.exampleCell);
-    this.exampleEdge3 = new Edge(this.exampleCell2, this.exampleCell4);
-    this.exampleWorld = new MazeGame(2, 2);
-    this.exampleWorld.edges = new ArrayList<Edge>(
-        Arrays.asList(this.exampleEdge, this.exampleEdge3));
-    this.exampleWorld.board = new ArrayList<ArrayList<Cell>>(
-        Arrays.asList(new ArrayList<Cell>(Arrays.asList(this.exampleCell, this.exampleCell3)),
-            new ArrayList<Cell>(Arrays.asList(this.exampleCell2, this.exampleCell4))));
-    this.owo = new MazeGame(20, 12);
-    this.next = new MazeGame(30, 45);
-    this.exampleCameFromEdge = new HashMap<Cell, Cell>();
-    this.exampleCameFromEdge.put(this.exampleCell4, this.exampleCell2);
-    this.exampleCameFromEdge.put(this.exampleCell2, this.exampleCell);
-    this.exampleWorld.connectEdgesToCells();
-  }
-
-  // tests for makeBoard
-  boolean testMakeBoard(Tester t) {
-    initData();
-    return t.checkExpect(this.owo.makeBoard().size(), 20)
-        && t.checkExpect(this.next.makeBoard().size(), 30);
-  }
-
-  // tests for drawCell
-  void testDrawCell(Tester t) {
-    initData();
-    t.checkExpect(this.exampleCell.drawCell(10),
-        new RectangleImage(8, 8, OutlineMode.SOLID, Color.LIGHT_GRAY));
-    t.checkExpect(this.exampleCell.drawCell(5),
-        new RectangleImage(3, 3, OutlineMode.SOLID, Color.LIGHT_GRAY));
-    t.checkExpect(this.exampleCell.drawCell(5, Color.red),
-        new RectangleImage(3, 3, OutlineMode.SOLID, Color.red));
-  }
-
-  // tests for drawEdge
-  boolean testDrawEdge(Tester t) {
-    initData();
-    return t.checkExpect(this.exampleEdge.drawEdge(20),
-        new RectangleImage(18, 18, OutlineMode.SOLID, Color.LIGHT_GRAY))
-        && t.checkExpect(this.exampleEdge.drawEdge(10),
-            new RectangleImage(8, 8, OutlineMode.SOLID, Color.LIGHT_GRAY));
-  }
-
-  // tests for makeEdges
-  void testMakeEdges(Tester t) {
-    initData();
-    t.checkExpect(this.owo.makeEdges().size(), 448);
-    t.checkExpect(this.next.makeEdges().size(), 2625);
-    t.checkExpect(this.owo.makeEdges().get(0).weight < this.owo.makeEdges().get(447).weight, true);
-  }
-
-  // tests for compareTo
-  boolean testCompareTo(Tester t) {
-    initData();
-    exampleEdge.weight = 20;
-    exampleEdge2.weight = 40;
-    return t.checkExpect(exampleEdge.compareTo(exampleEdge2), -20)
-        && t.checkExpect(exampleEdge2.compareTo(exampleEdge), 20)
-        && t.checkExpect(exampleEdge.compareTo(exampleEdge), 0);
-  }
-
-  // test for containsNeighbor
-  void testContainsNeighbor(Tester t) {
-    initData();
-    t.checkExpect(this.exampleCell2.containsNeighbor(this.cell1), false);
-    t.checkExpect(this.exampleCell.containsNeighbor(this.cell2), false);
-    this.exampleCell.edges.add(new Edge(this.exampleCell, this.cell2));
-    this.exampleCell2.edges.add(new Edge(this.exampleCell2, this.cell1));
-    t.checkExpect(this.exampleCell2.containsNeighbor(this.cell1), true);
-    t.checkExpect(this.exampleCell.containsNeighbor(this.cell2), true);
-  }
-
-  // test for findNode
-  void testFindNode(Tester t) {
-    initData();
-    t.checkExpect(this.exampleEdge.findNode(this.exampleCell), this.exampleCell2);
-    t.checkExpect(this.exampleEdge.findNode(this.exampleCell2), this.exampleCell);
-  }
-
-  // tests for kruskal
-  boolean testKruskal(Tester t) {
-    initData();
-    return t.checkExpect(this.owo.kruskal().size(), 239)
-        && t.checkExpect(this.next.kruskal().size(), 1349);
-  }
-
-  // test for makeScene
-  void testMakeScene(Tester t) {
-    initData();
-    WorldScene ws = this.exampleWorld.getEmptyScene();
-    ws.placeImageXY(new RectangleImage(MazeGame.TOTAL_WIDTH, MazeGame.TOTAL_HEIGHT,
-        OutlineMode.SOLID, Color.DARK_GRAY), MazeGame.TOTAL_WIDTH / 2, MazeGame.TOTAL_HEIGHT / 2);
-    t.checkExpect(this.exampleWorld.makeScene(), ws);
-  }
-
-  // test for unionFind
-  void testUnionFind(Tester t) {
-    initData();
-    HashMap<Cell, Cell> map = new HashMap<Cell, Cell>();
-    map.put(this.exampleWorld.board.get(0).get(0), this.exampleWorld.board.get(0).get(0));
-    map.put(this.exampleWorld.board.get(1).get(1), this.exampleWorld.board.get(0).get(0));
-    t.checkExpect(this.exampleWorld.unionFind(map, this.exampleWorld.board.get(0).get(0)),
-        this.exampleWorld.board.get(0).get(0));
-    t.checkExpect(this.exampleWorld.unionFind(map, this.exampleWorld.board.get(1).get(1)),
-        this.exampleWorld.board.get(0).get(0));
-  }
-
-  // test for connectEdgesToCell
-  void testConnectEdgesToCell(Tester t) {
-    initData();
-    this.exampleWorld.edges = new ArrayList<Edge>(Arrays.asList(
-        new Edge(this.exampleWorld.board.get(0).get(0), this.exampleWorld.board.get(1).get(0)),
-        new Edge(this.exampleWorld.board.get(0).get(0), this.exampleWorld.board.get(0).get(1))));
-    for (ArrayList<Cell> column : this.exampleWorld.board) {
-      for (Cell c : column) {
-        c.edges.clear();
-      }
-    }
-    this.exampleWorld.connectEdgesToCells();
-    t.checkExpect(this.exampleWorld.board.get(0).get(0).edges.size(), 2);
-    t.checkExpect(this.exampleWorld.board.get(1).get(0).edges.size(), 1);
-    t.checkExpect(this.exampleWorld.board.get(0).get(1).edges.size(), 1);
-  }
-
-  // test for search using dfs and bfs
-  void testSearch(Tester t) {
-    initData();
-    t.checkExpect(this.owo.searched.size(), 0);
-    t.checkExpect(this.owo.correctPath.size(), 0);
-    this.owo.search(true);
-    t.checkExpect(this.owo.searched.size() > 0, true);
-    t.checkExpect(this.owo.correctPath.size() > 0, true);
-    initData();
-    t.checkExpect(this.owo.searched.size(), 0);
-    this.owo.search(false);
-    t.checkExpect(this.owo.searched.size() > 0, true);
-    t.checkExpect(this.owo.correctPath.size() > 0, true);
-  }
-
-  // test for reconstruct
-  void testReconstruct(Tester t) {
-    initData();
-    this.exampleWorld.reconstruct(this.exampleCameFromEdge, this.exampleCell);
-    // the correct path for this example world is size 2
-    t.checkExpect(this.exampleWorld.reconstruct(this.exampleCameFromEdge, this.exampleCell4).size(),
-        2);
-  }
-
-  // test for updatePlayerPath
-  void testUpdatePlayerPath(Tester t) {
-    initData();
-    this.exampleWorld.currentCell = this.exampleCell;
-    t.checkExpect(this.exampleWorld.playerSearched.size(), 1);
-    this.exampleWorld.updatePlayerPath(exampleCell2);
-    t.checkExpect(this.exampleWorld.playerSearched.size(), 2);
-    t.checkExpect(this.exampleWorld.solved, false);
-    initData();
-    this.exampleWorld.currentCell = this.exampleCell2;
-    this.exampleWorld.updatePlayerPath(this.exampleCell4);
-    t.checkExpect(this.exampleWorld.solved, true);
-  }
-
-  // test for gameMessage
-  void testGameMessage(Tester t) {
-    initData();
-    t.checkExpect(this.exampleWorld.gameMessage(), "The maze has not been solved :(");
-    this.exampleWorld.solved = true;
-    t.checkExpect(this.exampleWorld.gameMessage(), "The maze has been solved :)");
-  }
-
-  // test for onKeyEvent
-  void testOnKeyEvent(Tester t) {
-    initData();
-    t.checkExpect(this.owo.searched.size(), 0);
-    t.checkExpect(this.owo.correctPath.size(), 0);
-    this.owo.onKeyEvent("d");
-    t.checkExpect(this.owo.searched.size() > 0, true);
-    t.checkExpect(this.owo.correctPath.size() > 0, true);
-
-    initData();
-    t.checkExpect(this.owo.searched.size(), 0);
-    t.checkExpect(this.owo.correctPath.size(), 0);
-    this.owo.onKeyEvent("b");
-    t.checkExpect(this.owo.searched.size() > 0, true);
-    t.checkExpect(this.owo.correctPath.size() > 0, true);
-
-    initData();
-    t.checkExpect(this.owo.searched.size(), 0);
-    t.checkExpect(this.owo.correctPath.size(), 0);
-    t.checkExpect(this.owo.solved, false);
-    this.owo.onKeyEvent("r");
-    t.checkExpect(this.owo.searched.size(), 0);
-    t.checkExpect(this.owo.correctPath.size(), 0);
-    t.checkExpect(this.owo.solved, false);
-
-    initData();
-    t.checkExpect(this.exampleWorld.playerSearched.size(), 1);
-    this.exampleWorld.currentCell = this.exampleCell4;
-    this.exampleWorld.onKeyEvent("up");
-    t.checkExpect(this.exampleWorld.playerSearched.size(), 2);
-
-    initData();
-    t.checkExpect(this.exampleWorld.playerSearched.size(), 1);
-    this.exampleWorld.currentCell = this.exampleCell2;
-    this.exampleWorld.onKeyEvent("down");
-    t.checkExpect(this.exampleWorld.playerSearched.size(), 2);
-
-    initData();
-    t.checkExpect(this.exampleWorld.playerSearched.size(), 1);
-    this.exampleWorld.currentCell = this.exampleCell2;
-    this.exampleWorld.onKeyEvent("left");
-    t.checkExpect(this.exampleWorld.playerSearched.size(), 2);
-
-    initData();
-    t.checkExpect(this.exampleWorld.playerSearched.size(), 1);
-    this.exampleWorld.currentCell = this.exampleCell;
-    this.exampleWorld.onKeyEvent("right");
-    t.checkExpect(this.exampleWorld.playerSearched.size(), 2);
-
-    initData();
-    t.checkExpect(this.owo.searched.size(), 0);
-    t.checkExpect(this.owo.correctPath.size(), 0);
-    this.owo.onKeyEvent("OWO UWU");
-    t.checkExpect(this.owo.searched.size(), 0);
-    t.checkExpect(this.owo.correctPath.size(), 0);
-  }
-
-  // test for onTick
-  void testOnTick(Tester t) {
-    initData();
-    t.checkExpect(this.exampleWorld.solved, false);
-    this.exampleWorld.currentCell = this.exampleCell4;
-    t.checkExpect(this.exampleWorld.solved, false);
-    this.exampleWorld.onTick();
-    t.checkExpect(this.exampleWorld.solved, true);
-  }
-
-  // test for BigBang
-  void testBigBang(Tester t) {
-    int width = 1100;
-    int height = 700;
-
-    MazeGame owo = new MazeGame(10, 6);
-    owo.bigBang(width, height, .00001);
-  }
-}
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+
+import tester.*;
+import javalib.impworld.*;
+import java.awt.Color;
+import java.io.BufferedOutputStream;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+import javalib.worldimages.*;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+
+/* Instructions to play the game:
+ * 
+ * Press the 'R' key to reset the maze game and design a new random maze
+ * Press the 'B' key to find the path using the Breadth-First Search algorithm
+ * Press the 'D' key to find the path using the Depth-First Search algorithm
+ * Press the 'A' key to find the path using the A* algorithm
+ * Press the 'T' key to find the path using a Breadth-First Search from both ends
+ * Press the 'J' key to find the path by searching only between the junctions
+ * Press the 'H' key to show the path from your current cell to the exit
+ * Press the 'V' key to race every search algorithm at once, each drawn in its own corner,
+ *   with how long each took shown under the maze
+ * Use the arrow keys to manually traverse through the maze
+ * Press the 'Z' and 'X' keys to zoom in and out of mazes too large to fit in the window
+ * Press the 'M' key to show the timing metrics, when run with -Dmaze.metrics=true
+ * 
+ */
+
+class Cell {
+  int x;
+  int y;
+  ArrayList<Edge> edges;
+
+  Cell(int x, int y) {
+    this.x = x;
+    this.y = y;
+    this.edges = new ArrayList<Edge>();
+  }
+
+  // draws the cell as a worldimage
+  WorldImage drawCell(int cellSize) {
+    return this.drawCell(cellSize, Color.LIGHT_GRAY);
+  }
+
+  // draws the cell as a worldimage, shared between every cell of the same size and color
+  WorldImage drawCell(int cellSize, Color c) {
+    return CellImages.get(cellSize, c);
+  }
+
+  // is the given cell connected to this cell?
+  public boolean containsNeighbor(Cell c) {
+    for (Edge e : this.edges) {
+      if (e.findNode(this).equals(c)) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
+
+// to represent a connection between two cells
+class Edge implements Comparable<Edge> {
+  Cell node1;
+  Cell node2;
+  int weight;
+
+  Edge(Cell node1, Cell node2) {
+    this(node1, node2, ThreadLocalRandom.current().nextInt(KruskalGenerator.MAX_WEIGHT));
+  }
+
+  Edge(Cell node1, Cell node2, int weight) {
+    this.node1 = node1;
+    this.node2 = node2;
+    this.weight = weight;
+  }
+
+  // if you pass in a specific node it gives the other node
+  Cell findNode(Cell node) {
+    if (node == node1) {
+      return node2;
+    }
+    else {
+      return node1;
+    }
+  }
+
+  // comparator method
+  public int compareTo(Edge e) {
+    return this.weight - e.weight;
+  }
+
+  // draw the edge
+  public WorldImage drawEdge(int cellSize) {
+    return CellImages.get(cellSize, Color.LIGHT_GRAY);
+  }
+}
+
+// to share one image per cell size and color instead of allocating one per draw
+class CellImages {
+  static ConcurrentHashMap<Long, WorldImage> IMAGES = new ConcurrentHashMap<Long, WorldImage>();
+
+  // the image of a cell of the given size and color
+  static WorldImage get(int cellSize, Color c) {
+    long key = ((long) cellSize << 32) | (c.getRGB() & 0xFFFFFFFFL);
+    return IMAGES.computeIfAbsent(key,
+        k -> new RectangleImage(cellSize - 2, cellSize - 2, OutlineMode.SOLID, c));
+  }
+}
+
+// to represent a maze as a flat grid of cells, where each cell stores its open
+// walls as bits in a single byte, indexed as x + y * width
+class MazeGrid {
+  static final int EAST = 1;
+  static final int SOUTH = 2;
+  static final int WEST = 4;
+  static final int NORTH = 8;
+  static final int[] DIRECTIONS = { EAST, SOUTH, WEST, NORTH };
+
+  int width;
+  int height;
+  byte[] walls;
+
+  MazeGrid(int width, int height) {
+    this(width, height, true);
+  }
+
+  // makes a grid of the given size, leaving the walls to a subclass if told not to allocate
+  MazeGrid(int width, int height, boolean allocate) {
+    MazeGrid.checkSize(width, height);
+    this.width = width;
+    this.height = height;
+    if (allocate) {
+      this.walls = new byte[width * height];
+    }
+  }
+
+  // throws if a grid can't be made with the given size
+  static void checkSize(int width, int height) {
+    if (width <= 0 || height <= 0) {
+      throw new IllegalArgumentException("Maze dimensions must be positive");
+    }
+    if ((long) width * height > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Maze has too many cells to index");
+    }
+  }
+
+  // the number of cells in this grid
+  int size() {
+    return this.width * this.height;
+  }
+
+  // the east and south bits of the given cell, which together describe the whole grid
+  int eastSouth(int idx) {
+    return this.walls[idx] & (EAST | SOUTH);
+  }
+
+  // a copy of this grid held in memory
+  MazeGrid copy() {
+    MazeGrid copy = new MazeGrid(this.width, this.height);
+    for (int i = 0; i < copy.size(); i++) {
+      int bits = this.eastSouth(i);
+      if ((bits & EAST) != 0) {
+        copy.open(i, EAST);
+      }
+      if ((bits & SOUTH) != 0) {
+        copy.open(i, SOUTH);
+      }
+    }
+    return copy;
+  }
+
+  // a read only copy of this grid, safe to search from several threads at once
+  ImmutableMazeGrid freeze() {
+    return new ImmutableMazeGrid(this);
+  }
+
+  // the index of the cell at the given position
+  int index(int x, int y) {
+    return x + y * this.width;
+  }
+
+  // the x position of the cell at the given index
+  int xOf(int idx) {
+    return idx % this.width;
+  }
+
+  // the y position of the cell at the given index
+  int yOf(int idx) {
+    return idx / this.width;
+  }
+
+  // the direction opposite to the given one
+  static int opposite(int dir) {
+    if (dir == EAST) {
+      return WEST;
+    }
+    else if (dir == WEST) {
+      return EAST;
+    }
+    else if (dir == SOUTH) {
+      return NORTH;
+    }
+    else {
+      return SOUTH;
+    }
+  }
+
+  // the index of the neighbor in the given direction, or -1 if it is off the board
+  int neighbor(int idx, int dir) {
+    int x = this.xOf(idx);
+    if (dir == EAST) {
+      return x < this.width - 1 ? idx + 1 : -1;
+    }
+    else if (dir == WEST) {
+      return x > 0 ? idx - 1 : -1;
+    }
+    else if (dir == SOUTH) {
+      return idx + this.width < this.size() ? idx + this.width : -1;
+    }
+    else {
+      return idx - this.width >= 0 ? idx - this.width : -1;
+    }
+  }
+
+  // the index of the neighbor through an open wall in the given direction
+  int step(int idx, int dir) {
+    if (dir == EAST) {
+      return idx + 1;
+    }
+    else if (dir == WEST) {
+      return idx - 1;
+    }
+    else if (dir == SOUTH) {
+      return idx + this.width;
+    }
+    else {
+      return idx - this.width;
+    }
+  }
+
+  // the manhattan distance between two cells
+  int manhattan(int a, int b) {
+    return Math.abs(this.xOf(a) - this.xOf(b)) + Math.abs(this.yOf(a) - this.yOf(b));
+  }
+
+  // the direction from one cell to an adjacent one, or 0 if they are not adjacent
+  int direction(int from, int to) {
+    for (int dir : DIRECTIONS) {
+      if (this.neighbor(from, dir) == to) {
+        return dir;
+      }
+    }
+    return 0;
+  }
+
+  // is the wall of the given cell in the given direction open?
+  boolean isOpen(int idx, int dir) {
+    return (this.walls[idx] & dir) != 0;
+  }
+
+  // is there an open passage between these two cells?
+  boolean isConnected(int a, int b) {
+    int dir = this.direction(a, b);
+    return dir != 0 && this.isOpen(a, dir);
+  }
+
+  // opens the wall of the given cell in the given direction, on both sides
+  void open(int idx, int dir) {
+    int other = this.neighbor(idx, dir);
+    if (other < 0) {
+      throw new IllegalArgumentException("Cannot open a wall on the edge of the board");
+    }
+    this.walls[idx] |= dir;
+    this.walls[other] |= opposite(dir);
+  }
+
+  // opens the passage between two adjacent cells
+  void connect(int a, int b) {
+    int dir = this.direction(a, b);
+    if (dir == 0) {
+      throw new IllegalArgumentException("Cells are not adjacent");
+    }
+    this.open(a, dir);
+  }
+
+  // closes every wall in the grid
+  void clear() {
+    Arrays.fill(this.walls, (byte) 0);
+  }
+
+  // the number of open passages leaving the given cell
+  int degree(int idx) {
+    return Integer.bitCount(this.walls[idx]);
+  }
+
+  // the number of open passages in the whole grid
+  long passageCount() {
+    long count = 0;
+    for (int i = 0; i < this.size(); i++) {
+      count += Integer.bitCount(this.eastSouth(i));
+    }
+    return count;
+  }
+
+  // builds the cell view of this grid, one column per x position
+  ArrayList<ArrayList<Cell>> makeBoard() {
+    ArrayList<ArrayList<Cell>> board = new ArrayList<ArrayList<Cell>>(this.width);
+    for (int col = 0; col < this.width; col++) {
+      ArrayList<Cell> column = new ArrayList<Cell>(this.height);
+      for (int row = 0; row < this.height; row++) {
+        column.add(new Cell(col, row));
+      }
+      board.add(column);
+    }
+    return board;
+  }
+
+  // builds the edge view of every open passage in this grid over the given board
+  ArrayList<Edge> makeEdges(ArrayList<ArrayList<Cell>> board) {
+    ArrayList<Edge> edges = new ArrayList<Edge>();
+    for (int y = 0; y < this.height; y++) {
+      for (int x = 0; x < this.width; x++) {
+        int idx = this.index(x, y);
+        if (this.isOpen(idx, EAST)) {
+          edges.add(new Edge(board.get(x).get(y), board.get(x + 1).get(y), 0));
+        }
+        if (this.isOpen(idx, SOUTH)) {
+          edges.add(new Edge(board.get(x).get(y), board.get(x).get(y + 1), 0));
+        }
+      }
+    }
+    return edges;
+  }
+}
+
+// to represent a grid whose walls can no longer change, so any number of solvers
+// can read it at once without locking
+class ImmutableMazeGrid extends MazeGrid {
+
+  // copies the walls of the given grid, which may go on changing without affecting this one
+  ImmutableMazeGrid(MazeGrid grid) {
+    super(grid.width, grid.height);
+    for (int i = 0; i < this.size(); i++) {
+      int bits = grid.eastSouth(i);
+      if ((bits & EAST) != 0) {
+        this.walls[i] |= EAST;
+        this.walls[i + 1] |= WEST;
+      }
+      if ((bits & SOUTH) != 0) {
+        this.walls[i] |= SOUTH;
+        this.walls[i + this.width] |= NORTH;
+      }
+    }
+  }
+
+  // already frozen, so the copy would be the same
+  ImmutableMazeGrid freeze() {
+    return this;
+  }
+
+  // a frozen maze is only ever read
+  void open(int idx, int dir) {
+    throw new UnsupportedOperationException("A frozen maze is read only");
+  }
+
+  // a frozen maze is only ever read
+  void clear() {
+    throw new UnsupportedOperationException("A frozen maze is read only");
+  }
+}
+
+// to represent a disjoint set of cell indices, using path compression and
+// union by rank
+class UnionFind {
+  int[] parent;
+  byte[] rank;
+  int sets;
+
+  UnionFind(int size) {
+    this.parent = new int[size];
+    this.rank = new byte[size];
+    this.sets = size;
+    for (int i = 0; i < size; i++) {
+      this.parent[i] = i;
+    }
+  }
+
+  // finds the representative of the given element, compressing the path to it
+  int find(int i) {
+    int root = i;
+    while (this.parent[root] != root) {
+      root = this.parent[root];
+    }
+    while (this.parent[i] != root) {
+      int next = this.parent[i];
+      this.parent[i] = root;
+      i = next;
+    }
+    return root;
+  }
+
+  // joins the sets of the two elements, returning false if they were already joined
+  boolean union(int a, int b) {
+    int rootA = this.find(a);
+    int rootB = this.find(b);
+    if (rootA == rootB) {
+      return false;
+    }
+    if (this.rank[rootA] < this.rank[rootB]) {
+      this.parent[rootA] = rootB;
+    }
+    else if (this.rank[rootA] > this.rank[rootB]) {
+      this.parent[rootB] = rootA;
+    }
+    else {
+      this.parent[rootB] = rootA;
+      this.rank[rootA]++;
+    }
+    this.sets--;
+    return true;
+  }
+}
+
+// to represent a way of generating a perfect maze from a seed
+interface IMazeGenerator {
+  // generates a perfect maze of the given size from the given seed
+  MazeGrid generate(int width, int height, long seed);
+}
+
+// to represent a destination for a maze produced one row at a time
+interface IRowSink {
+  // accepts the open-wall bits of the row at the given y position, which are
+  // only valid until this method returns
+  void acceptRow(int y, byte[] row);
+}
+
+// to generate a maze from a seed using kruskal's algorithm, with edge weights
+// drawn from a single PRNG and bucket sorted over their small range
+class KruskalGenerator implements IMazeGenerator {
+  static final int MAX_WEIGHT = 100;
+
+  // generates a perfect maze of the given size from the given seed
+  public MazeGrid generate(int width, int height, long seed) {
+    MazeGrid grid = new MazeGrid(width, height);
+    int[] order = this.sortEdges(width, height, seed, new int[MAX_WEIGHT + 1]);
+    UnionFind sets = new UnionFind(grid.size());
+    int i = 0;
+    for (; i < order.length && sets.sets > 1; i++) {
+      int cell = order[i] >> 1;
+      int dir = (order[i] & 1) == 0 ? MazeGrid.EAST : MazeGrid.SOUTH;
+      if (sets.union(cell, grid.neighbor(cell, dir))) {
+        grid.open(cell, dir);
+      }
+    }
+    MazeMetrics.unionFind(i, grid.size() - sets.sets);
+    return grid;
+  }
+
+  // sorts every candidate edge by a seeded random weight with a counting sort,
+  // drawing the weights twice from the same seed instead of storing them; returns the
+  // edges sorted by weight, encoded as cell index * 2, plus 1 for the south wall or 0
+  // for the east wall, and fills in where each weight starts in them, with one extra
+  // entry for the end
+  int[] sortEdges(int width, int height, long seed, int[] starts) {
+    int total = (width - 1) * height + width * (height - 1);
+    int[] order = new int[total];
+
+    SplittableRandom random = new SplittableRandom(seed);
+    int[] counts = new int[MAX_WEIGHT];
+    for (int i = 0; i < total; i++) {
+      counts[random.nextInt(MAX_WEIGHT)]++;
+    }
+    int[] next = new int[MAX_WEIGHT];
+    for (int w = 0; w < MAX_WEIGHT; w++) {
+      starts[w + 1] = starts[w] + counts[w];
+      next[w] = starts[w];
+    }
+
+    random = new SplittableRandom(seed);
+    for (int y = 0; y < height; y++) {
+      for (int x = 0; x < width; x++) {
+        int cell = x + y * width;
+        if (x < width - 1) {
+          order[next[random.nextInt(MAX_WEIGHT)]++] = cell << 1;
+        }
+        if (y < height - 1) {
+          order[next[random.nextInt(MAX_WEIGHT)]++] = (cell << 1) | 1;
+        }
+      }
+    }
+    return order;
+  }
+}
+
+// to generate a maze one row at a time using eller's algorithm, keeping only
+// O(width) state so the maze never has to fit in memory
+class EllerGenerator implements IMazeGenerator {
+
+  // generates a perfect maze of the given size by streaming it into a grid
+  public MazeGrid generate(int width, int height, long seed) {
+    MazeGrid grid = new MazeGrid(width, height);
+    this.stream(width, height, seed, new GridRowSink(grid));
+    return grid;
+  }
+
+  // streams a perfect maze of the given size to the sink, one row at a time
+  void stream(int width, int height, long seed, IRowSink sink) {
+    if (width <= 0 || height <= 0) {
+      throw new IllegalArgumentException("Maze dimensions must be positive");
+    }
+    SplittableRandom random = new SplittableRandom(seed);
+    UnionFind sets = new UnionFind(width);
+    // the set each column carried down from the row above, or -1 for a new cell
+    int[] labels = new int[width];
+    int[] first = new int[width];
+    int[] remaining = new int[width];
+    boolean[] dropped = new boolean[width];
+    byte[] row = new byte[width];
+    byte[] above = new byte[width];
+    Arrays.fill(labels, -1);
+    Arrays.fill(first, -1);
+
+    for (int y = 0; y < height; y++) {
+      boolean last = y == height - 1;
+      this.resetSets(sets);
+      for (int x = 0; x < width; x++) {
+        row[x] = (byte) ((above[x] & MazeGrid.SOUTH) != 0 ? MazeGrid.NORTH : 0);
+        if (labels[x] >= 0) {
+          if (first[labels[x]] < 0) {
+            first[labels[x]] = x;
+          }
+          else {
+            sets.union(x, first[labels[x]]);
+          }
+        }
+      }
+
+      // join neighbors in different sets, always on the last row
+      for (int x = 0; x < width - 1; x++) {
+        if (sets.find(x) != sets.find(x + 1) && (last || random.nextBoolean())) {
+          sets.union(x, x + 1);
+          row[x] |= MazeGrid.EAST;
+          row[x + 1] |= MazeGrid.WEST;
+        }
+      }
+
+      // drop at least one passage south from every set
+      if (!last) {
+        for (int x = 0; x < width; x++) {
+          remaining[sets.find(x)]++;
+        }
+        for (int x = 0; x < width; x++) {
+          int root = sets.find(x);
+          remaining[root]--;
+          if (random.nextBoolean() || (remaining[root] == 0 && !dropped[root])) {
+            row[x] |= MazeGrid.SOUTH;
+            dropped[root] = true;
+          }
+        }
+      }
+
+      sink.acceptRow(y, row);
+
+      for (int x = 0; x < width; x++) {
+        if (labels[x] >= 0) {
+          first[labels[x]] = -1;
+        }
+      }
+      for (int x = 0; x < width; x++) {
+        labels[x] = (row[x] & MazeGrid.SOUTH) != 0 ? sets.find(x) : -1;
+        dropped[x] = false;
+      }
+      byte[] swap = above;
+      above = row;
+      row = swap;
+    }
+  }
+
+  // puts every column back into its own set
+  void resetSets(UnionFind sets) {
+    for (int i = 0; i < sets.parent.length; i++) {
+      sets.parent[i] = i;
+      sets.rank[i] = 0;
+    }
+    sets.sets = sets.parent.length;
+  }
+}
+
+// to copy streamed rows into a MazeGrid
+class GridRowSink implements IRowSink {
+  MazeGrid grid;
+
+  GridRowSink(MazeGrid grid) {
+    this.grid = grid;
+  }
+
+  // copies the row into the grid
+  public void acceptRow(int y, byte[] row) {
+    System.arraycopy(row, 0, this.grid.walls, this.grid.index(0, y), this.grid.width);
+  }
+}
+
+// to generate a maze in parallel by building a spanning tree in each tile of the
+// board on a fork-join pool, then joining the tiles along their borders
+class TileGenerator implements IMazeGenerator {
+  int tileSize;
+  ForkJoinPool pool;
+
+  TileGenerator() {
+    this(256, ForkJoinPool.commonPool());
+  }
+
+  TileGenerator(int tileSize, ForkJoinPool pool) {
+    if (tileSize <= 0) {
+      throw new IllegalArgumentException("Tile size must be positive");
+    }
+    this.tileSize = tileSize;
+    this.pool = pool;
+  }
+
+  // generates a perfect maze of the given size from the given seed
+  public MazeGrid generate(int width, int height, long seed) {
+    MazeGrid grid = new MazeGrid(width, height);
+    int tilesX = (width + this.tileSize - 1) / this.tileSize;
+    int tilesY = (height + this.tileSize - 1) / this.tileSize;
+    this.pool.invoke(new TileTask(this, grid, tilesX, seed, 0, tilesX * tilesY));
+
+    // a spanning tree over the tiles decides which neighboring tiles get joined,
+    // since each tile is already a tree any single border passage keeps it perfect
+    MazeGrid tiles = new KruskalGenerator().generate(tilesX, tilesY, seed);
+    SplittableRandom random = new SplittableRandom(seed);
+    for (int tile = 0; tile < tiles.size(); tile++) {
+      int left = tiles.xOf(tile) * this.tileSize;
+      int top = tiles.yOf(tile) * this.tileSize;
+      if (tiles.isOpen(tile, MazeGrid.EAST)) {
+        int span = Math.min(this.tileSize, height - top);
+        grid.open(grid.index(left + this.tileSize - 1, top + random.nextInt(span)),
+            MazeGrid.EAST);
+      }
+      if (tiles.isOpen(tile, MazeGrid.SOUTH)) {
+        int span = Math.min(this.tileSize, width - left);
+        grid.open(grid.index(left + random.nextInt(span), top + this.tileSize - 1),
+            MazeGrid.SOUTH);
+      }
+    }
+    return grid;
+  }
+
+  // builds the spanning tree inside one tile, writing only that tile's cells
+  void generateTile(MazeGrid grid, int tilesX, long seed, int tile) {
+    int left = (tile % tilesX) * this.tileSize;
+    int top = (tile / tilesX) * this.tileSize;
+    int tileWidth = Math.min(this.tileSize, grid.width - left);
+    int tileHeight = Math.min(this.tileSize, grid.height - top);
+    long tileSeed = new SplittableRandom(seed + tile * 0x9E3779B97F4A7C15L).nextLong();
+    MazeGrid local = new KruskalGenerator().generate(tileWidth, tileHeight, tileSeed);
+    for (int y = 0; y < tileHeight; y++) {
+      System.arraycopy(local.walls, local.index(0, y), grid.walls, grid.index(left, top + y),
+          tileWidth);
+    }
+  }
+}
+
+// to represent a fork-join task that generates a range of tiles
+class TileTask extends RecursiveAction {
+  private static final long serialVersionUID = 1L;
+
+  TileGenerator generator;
+  MazeGrid grid;
+  int tilesX;
+  long seed;
+  int from;
+  int to;
+
+  TileTask(TileGenerator generator, MazeGrid grid, int tilesX, long seed, int from, int to) {
+    this.generator = generator;
+    this.grid = grid;
+    this.tilesX = tilesX;
+    this.seed = seed;
+    this.from = from;
+    this.to = to;
+  }
+
+  // generates a single tile directly, or splits the range in two
+  protected void compute() {
+    if (this.to - this.from == 1) {
+      this.generator.generateTile(this.grid, this.tilesX, this.seed, this.from);
+    }
+    else {
+      int mid = (this.from + this.to) >>> 1;
+      invokeAll(new TileTask(this.generator, this.grid, this.tilesX, this.seed, this.from, mid),
+          new TileTask(this.generator, this.grid, this.tilesX, this.seed, mid, this.to));
+    }
+  }
+}
+
+// to represent the outcome of a search: the cells in the order they were
+// visited, and the path from the start to the goal (empty if there is none)
+class SearchResult {
+  int[] order;
+  int[] path;
+
+  SearchResult(int[] order, int[] path) {
+    this.order = order;
+    this.path = path;
+  }
+
+  // did the search reach the goal?
+  boolean found() {
+    return this.path.length > 0;
+  }
+
+  // builds the result for a search that recorded its parents, walking back from the goal
+  static SearchResult fromParents(int[] order, int visited, int[] parent, int start,
+      int goal, boolean found) {
+    int[] trimmed = Arrays.copyOf(order, visited);
+    if (!found) {
+      return new SearchResult(trimmed, new int[0]);
+    }
+    int length = 1;
+    for (int c = goal; c != start; c = parent[c]) {
+      length++;
+    }
+    int[] path = new int[length];
+    for (int c = goal, i = length - 1; i >= 0; c = parent[c], i--) {
+      path[i] = c;
+    }
+    return new SearchResult(trimmed, path);
+  }
+
+  // stops the search if its thread was interrupted, checking only every few thousand
+  // cells so the check costs nothing next to the search itself
+  static void checkCancelled(int visited) {
+    if ((visited & 4095) == 0 && Thread.currentThread().isInterrupted()) {
+      throw new CancellationException("Search was cancelled");
+    }
+  }
+}
+
+// to represent an algorithm that finds a path between two cells of a maze
+interface ISolver {
+  // searches the grid from the start cell until it reaches the goal cell
+  SearchResult solve(MazeGrid grid, int start, int goal);
+}
+
+// to search a maze breadth first, using an int ring buffer as the queue
+class BfsSolver implements ISolver {
+
+  // searches the grid breadth first
+  public SearchResult solve(MazeGrid grid, int start, int goal) {
+    int[] parent = new int[grid.size()];
+    int[] queue = new int[grid.size()];
+    BitSet seen = new BitSet(grid.size());
+    int head = 0;
+    int tail = 0;
+    queue[tail++] = start;
+    seen.set(start);
+    while (head < tail) {
+      int next = queue[head++];
+      SearchResult.checkCancelled(head);
+      if (next == goal) {
+        return SearchResult.fromParents(queue, head, parent, start, goal, true);
+      }
+      for (int dir : MazeGrid.DIRECTIONS) {
+        if (grid.isOpen(next, dir)) {
+          int n = grid.step(next, dir);
+          if (!seen.get(n)) {
+            seen.set(n);
+            parent[n] = next;
+            queue[tail++] = n;
+          }
+        }
+      }
+    }
+    return SearchResult.fromParents(queue, head, parent, start, goal, false);
+  }
+}
+
+// to search a maze depth first, using an int array as the stack
+class DfsSolver implements ISolver {
+
+  // searches the grid depth first
+  public SearchResult solve(MazeGrid grid, int start, int goal) {
+    int[] parent = new int[grid.size()];
+    int[] order = new int[grid.size()];
+    int[] stack = new int[grid.size() + 1];
+    BitSet seen = new BitSet(grid.size());
+    int visited = 0;
+    int top = 0;
+    stack[top++] = start;
+    while (top > 0) {
+      int next = stack[--top];
+      if (seen.get(next)) {
+        continue;
+      }
+      seen.set(next);
+      order[visited++] = next;
+      SearchResult.checkCancelled(visited);
+      if (next == goal) {
+        return SearchResult.fromParents(order, visited, parent, start, goal, true);
+      }
+      for (int dir : MazeGrid.DIRECTIONS) {
+        if (grid.isOpen(next, dir)) {
+          int n = grid.step(next, dir);
+          if (!seen.get(n)) {
+            if (top == stack.length) {
+              stack = Arrays.copyOf(stack, stack.length * 2);
+            }
+            parent[n] = next;
+            stack[top++] = n;
+          }
+        }
+      }
+    }
+    return SearchResult.fromParents(order, visited, parent, start, goal, false);
+  }
+}
+
+// to search a maze with A*, guided by the manhattan distance to the goal
+class AStarSolver implements ISolver {
+
+  // searches the grid, expanding the cell with the lowest estimated total cost first
+  public SearchResult solve(MazeGrid grid, int start, int goal) {
+    int[] parent = new int[grid.size()];
+    int[] order = new int[grid.size()];
+    int[] cost = new int[grid.size()];
+    BitSet seen = new BitSet(grid.size());
+    LongMinHeap open = new LongMinHeap(16);
+    Arrays.fill(cost, Integer.MAX_VALUE);
+    int visited = 0;
+    cost[start] = 0;
+    open.push(LongMinHeap.key(grid.manhattan(start, goal), start));
+    while (open.size > 0) {
+      int next = LongMinHeap.value(open.pop());
+      if (seen.get(next)) {
+        continue;
+      }
+      seen.set(next);
+      order[visited++] = next;
+      SearchResult.checkCancelled(visited);
+      if (next == goal) {
+        return SearchResult.fromParents(order, visited, parent, start, goal, true);
+      }
+      for (int dir : MazeGrid.DIRECTIONS) {
+        if (grid.isOpen(next, dir)) {
+          int n = grid.step(next, dir);
+          if (!seen.get(n) && cost[next] + 1 < cost[n]) {
+            cost[n] = cost[next] + 1;
+            parent[n] = next;
+            open.push(LongMinHeap.key(cost[n] + grid.manhattan(n, goal), n));
+          }
+        }
+      }
+    }
+    return SearchResult.fromParents(order, visited, parent, start, goal, false);
+  }
+}
+
+// to search a maze breadth first from both ends at once, stopping where they meet
+class BidirectionalBfsSolver implements ISolver {
+
+  // searches the grid from the start and the goal, one cell from each side in turn
+  public SearchResult solve(MazeGrid grid, int start, int goal) {
+    if (start == goal) {
+      return new SearchResult(new int[] { start }, new int[] { start });
+    }
+    int[] fromStart = new int[grid.size()];
+    int[] fromGoal = new int[grid.size()];
+    int[] startQueue = new int[grid.size()];
+    int[] goalQueue = new int[grid.size()];
+    int[] order = new int[grid.size()];
+    BitSet seenStart = new BitSet(grid.size());
+    BitSet seenGoal = new BitSet(grid.size());
+    int startHead = 0;
+    int startTail = 0;
+    int goalHead = 0;
+    int goalTail = 0;
+    int visited = 0;
+    startQueue[startTail++] = start;
+    goalQueue[goalTail++] = goal;
+    seenStart.set(start);
+    seenGoal.set(goal);
+
+    while (startHead < startTail && goalHead < goalTail) {
+      SearchResult.checkCancelled(startHead);
+      int next = startQueue[startHead++];
+      order[visited++] = next;
+      int added = startTail;
+      startTail = this.expand(grid, next, fromStart, startQueue, startTail, seenStart);
+      int meet = BidirectionalBfsSolver.meeting(startQueue, added, startTail, seenGoal);
+      if (meet < 0) {
+        next = goalQueue[goalHead++];
+        order[visited++] = next;
+        added = goalTail;
+        goalTail = this.expand(grid, next, fromGoal, goalQueue, goalTail, seenGoal);
+        meet = BidirectionalBfsSolver.meeting(goalQueue, added, goalTail, seenStart);
+      }
+      if (meet >= 0) {
+        order[visited++] = meet;
+        return new SearchResult(Arrays.copyOf(order, visited),
+            this.stitch(meet, start, goal, fromStart, fromGoal));
+      }
+    }
+    return new SearchResult(Arrays.copyOf(order, visited), new int[0]);
+  }
+
+  // adds the unseen neighbors of a cell to one side's queue, returning the new tail
+  // of the queue
+  int expand(MazeGrid grid, int next, int[] parent, int[] queue, int tail, BitSet seen) {
+    for (int dir : MazeGrid.DIRECTIONS) {
+      if (grid.isOpen(next, dir)) {
+        int n = grid.step(next, dir);
+        if (!seen.get(n)) {
+          seen.set(n);
+          parent[n] = next;
+          queue[tail++] = n;
+        }
+      }
+    }
+    return tail;
+  }
+
+  // the first of the queued cells from one up to but not including the other that the
+  // other side has already seen, or -1 if there is none
+  static int meeting(int[] queue, int from, int to, BitSet other) {
+    for (int i = from; i < to; i++) {
+      if (other.get(queue[i])) {
+        return queue[i];
+      }
+    }
+    return -1;
+  }
+
+  // joins the path from the start to the meeting cell with the one on to the goal
+  int[] stitch(int meet, int start, int goal, int[] fromStart, int[] fromGoal) {
+    int before = 0;
+    for (int c = meet; c != start; c = fromStart[c]) {
+      before++;
+    }
+    int after = 0;
+    for (int c = meet; c != goal; c = fromGoal[c]) {
+      after++;
+    }
+    int[] path = new int[before + after + 1];
+    int i = before;
+    for (int c = meet; c != start; c = fromStart[c]) {
+      path[i--] = c;
+    }
+    path[0] = start;
+    i = before + 1;
+    for (int c = meet; c != goal; ) {
+      c = fromGoal[c];
+      path[i++] = c;
+    }
+    return path;
+  }
+}
+
+// to represent a maze as a weighted graph between its junctions, dead ends and the
+// start and goal, where each edge stands for a whole corridor of two-passage cells;
+// building it walks the whole grid, so it is built once per maze and searched again
+class JunctionGraph {
+  MazeGrid grid;
+  int start;
+  int goal;
+  // the node of each cell, or -1 for a cell in the middle of a corridor
+  int[] nodeOf;
+  // the cell of each node
+  int[] cells;
+  // the edges leaving node n are firstEdge[n] up to but not including firstEdge[n + 1]
+  int[] firstEdge;
+  int[] target;
+  int[] length;
+  // the direction each edge leaves its node in, to walk the corridor again later
+  byte[] exit;
+  // does the graph have no loops, so the only path between two nodes is the shortest?
+  boolean forest;
+
+  // contracts every corridor of the grid into a single edge, keeping the start and goal
+  // as nodes even when they are in the middle of one
+  JunctionGraph(MazeGrid grid, int start, int goal) {
+    this.grid = grid;
+    this.start = start;
+    this.goal = goal;
+    int size = grid.size();
+    this.nodeOf = new int[size];
+    int nodes = 0;
+    int edges = 0;
+    for (int c = 0; c < size; c++) {
+      int degree = grid.degree(c);
+      if (degree != 2 || c == start || c == goal) {
+        this.nodeOf[c] = nodes++;
+        edges += degree;
+      }
+      else {
+        this.nodeOf[c] = -1;
+      }
+    }
+    this.cells = new int[nodes];
+    this.firstEdge = new int[nodes + 1];
+    this.target = new int[edges];
+    this.length = new int[edges];
+    this.exit = new byte[edges];
+    int e = 0;
+    for (int c = 0; c < size; c++) {
+      int node = this.nodeOf[c];
+      if (node < 0) {
+        continue;
+      }
+      this.cells[node] = c;
+      this.firstEdge[node] = e;
+      for (int dir : MazeGrid.DIRECTIONS) {
+        if (grid.isOpen(c, dir)) {
+          int cur = grid.step(c, dir);
+          int back = MazeGrid.opposite(dir);
+          int steps = 1;
+          while (this.nodeOf[cur] < 0) {
+            int onward = this.onward(cur, back);
+            back = MazeGrid.opposite(onward);
+            cur = grid.step(cur, onward);
+            steps++;
+          }
+          this.target[e] = this.nodeOf[cur];
+          this.length[e] = steps;
+          this.exit[e] = (byte) dir;
+          e++;
+        }
+      }
+    }
+    this.firstEdge[nodes] = e;
+    this.forest = this.isForest();
+  }
+
+  // does joining both ends of every edge never join two nodes already joined?
+  boolean isForest() {
+    UnionFind sets = new UnionFind(this.nodeCount());
+    for (int node = 0; node < this.nodeCount(); node++) {
+      for (int e = this.firstEdge[node]; e < this.firstEdge[node + 1]; e++) {
+        // every corridor is an edge from both of its ends, so only join it from one
+        if (this.target[e] == node || (this.target[e] > node
+            && !sets.union(node, this.target[e]))) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  // was this graph built for a search between these cells of this grid?
+  boolean isFor(MazeGrid grid, int start, int goal) {
+    return this.grid == grid && this.start == start && this.goal == goal;
+  }
+
+  // the number of nodes left after contracting the corridors
+  int nodeCount() {
+    return this.cells.length;
+  }
+
+  // the open direction out of a corridor cell other than the one it was entered from
+  int onward(int cell, int back) {
+    for (int dir : MazeGrid.DIRECTIONS) {
+      if (dir != back && this.grid.isOpen(cell, dir)) {
+        return dir;
+      }
+    }
+    throw new IllegalStateException("A corridor cell has only one passage");
+  }
+
+  // finds the shortest path from the start to the goal, expanding only nodes, where the
+  // order holds the cells of the expanded nodes and the path holds every cell
+  SearchResult solve() {
+    return this.forest ? this.solveForest() : this.solveWeighted();
+  }
+
+  // finds the path breadth first, which is only the shortest because a forest has no
+  // other path to find; the order doubles as the queue
+  SearchResult solveForest() {
+    int nodes = this.nodeCount();
+    int from = this.nodeOf[this.start];
+    int to = this.nodeOf[this.goal];
+    // the edge each node was reached by, -1 for the start, or -2 if not reached yet
+    int[] parentEdge = new int[nodes];
+    int[] parent = new int[nodes];
+    int[] order = new int[nodes];
+    Arrays.fill(parentEdge, -2);
+    parentEdge[from] = -1;
+    order[0] = from;
+    int head = 0;
+    int tail = 1;
+    while (head < tail) {
+      int node = order[head];
+      order[head++] = this.cells[node];
+      SearchResult.checkCancelled(head);
+      if (node == to) {
+        return new SearchResult(Arrays.copyOf(order, head),
+            this.expand(to, from, parent, parentEdge));
+      }
+      for (int e = this.firstEdge[node]; e < this.firstEdge[node + 1]; e++) {
+        int next = this.target[e];
+        if (parentEdge[next] == -2) {
+          parentEdge[next] = e;
+          parent[next] = node;
+          order[tail++] = next;
+        }
+      }
+    }
+    return new SearchResult(Arrays.copyOf(order, head), new int[0]);
+  }
+
+  // finds the shortest path by the lengths of the corridors, for a graph with loops
+  SearchResult solveWeighted() {
+    int nodes = this.nodeCount();
+    int from = this.nodeOf[this.start];
+    int to = this.nodeOf[this.goal];
+    int[] dist = new int[nodes];
+    int[] parent = new int[nodes];
+    int[] parentEdge = new int[nodes];
+    int[] order = new int[nodes];
+    BitSet done = new BitSet(nodes);
+    LongMinHeap open = new LongMinHeap(16);
+    Arrays.fill(dist, Integer.MAX_VALUE);
+    int visited = 0;
+    dist[from] = 0;
+    open.push(LongMinHeap.key(0, from));
+    while (open.size > 0) {
+      int node = LongMinHeap.value(open.pop());
+      if (done.get(node)) {
+        continue;
+      }
+      done.set(node);
+      order[visited++] = this.cells[node];
+      SearchResult.checkCancelled(visited);
+      if (node == to) {
+        return new SearchResult(Arrays.copyOf(order, visited),
+            this.expand(to, from, parent, parentEdge));
+      }
+      for (int e = this.firstEdge[node]; e < this.firstEdge[node + 1]; e++) {
+        int next = this.target[e];
+        int d = dist[node] + this.length[e];
+        if (!done.get(next) && d < dist[next]) {
+          dist[next] = d;
+          parent[next] = node;
+          parentEdge[next] = e;
+          open.push(LongMinHeap.key(d, next));
+        }
+      }
+    }
+    return new SearchResult(Arrays.copyOf(order, visited), new int[0]);
+  }
+
+  // the cells of the path to the given node, walking each of its corridors again
+  int[] expand(int to, int from, int[] parent, int[] parentEdge) {
+    int length = 0;
+    for (int node = to; node != from; node = parent[node]) {
+      length += this.length[parentEdge[node]];
+    }
+    int[] path = new int[length + 1];
+    path[length] = this.cells[to];
+    int end = length;
+    for (int node = to; node != from; node = parent[node]) {
+      int e = parentEdge[node];
+      end -= this.length[e];
+      int at = end;
+      int cur = this.cells[parent[node]];
+      int dir = this.exit[e];
+      path[at] = cur;
+      for (int i = 1; i < this.length[e]; i++) {
+        cur = this.grid.step(cur, dir);
+        path[at + i] = cur;
+        dir = this.onward(cur, MazeGrid.opposite(dir));
+      }
+    }
+    return path;
+  }
+}
+
+// to search a maze on its junction graph, so corridors cost one expansion each,
+// keeping the last graph to search again while its grid goes unchanged
+class JunctionSolver implements ISolver {
+  JunctionGraph graph;
+
+  JunctionSolver() {
+    this(null);
+  }
+
+  // a solver that searches the given graph, already built for the maze
+  JunctionSolver(JunctionGraph graph) {
+    this.graph = graph;
+  }
+
+  // contracts the grid's corridors, unless the last graph was for the same search,
+  // and searches between the junctions
+  public SearchResult solve(MazeGrid grid, int start, int goal) {
+    if (this.graph == null || !this.graph.isFor(grid, start, goal)) {
+      this.graph = new JunctionGraph(grid, start, goal);
+    }
+    return this.graph.solve();
+  }
+}
+
+// to search a maze breadth first a whole level at a time, keeping the frontier as
+// 64 cell words of a bitboard over the grid and expanding each word in every direction
+// with a shift and a mask against a bitplane of the walls open that way
+class BitboardBfs {
+  MazeGrid grid;
+  int words;
+  // one bit per cell, indexed like the grid, set where the wall that way is open
+  long[] east;
+  long[] south;
+  long[] west;
+  long[] north;
+  // the cells reached by the last search, and the number of levels it went through
+  long[] visited;
+  long reached;
+  int levels;
+  // when the last search was traced, the cells in the order they were reached, and the
+  // level each cell was reached at modulo 3 as two bitplanes, low bit and high bit
+  int[] order;
+  long[] thirdLow;
+  long[] thirdHigh;
+
+  BitboardBfs(MazeGrid grid) {
+    this.grid = grid;
+    int size = grid.size();
+    this.words = (size + 63) >>> 6;
+    this.east = new long[this.words];
+    this.south = new long[this.words];
+    for (int i = 0; i < size; i++) {
+      int bits = grid.eastSouth(i);
+      if ((bits & MazeGrid.EAST) != 0) {
+        this.east[i >>> 6] |= 1L << i;
+      }
+      if ((bits & MazeGrid.SOUTH) != 0) {
+        this.south[i >>> 6] |= 1L << i;
+      }
+    }
+    // a cell's west wall is its west neighbor's east wall, one bit along
+    this.west = BitboardBfs.shiftUp(this.east, 1);
+    this.north = BitboardBfs.shiftUp(this.south, grid.width);
+  }
+
+  // the bitboard moved n bits toward the higher cell indices
+  static long[] shiftUp(long[] board, int n) {
+    long[] shifted = new long[board.length];
+    int q = n >>> 6;
+    int r = n & 63;
+    for (int w = board.length - 1; w >= q; w--) {
+      long low = board[w - q] << r;
+      long carry = r != 0 && w - q - 1 >= 0 ? board[w - q - 1] >>> (64 - r) : 0;
+      shifted[w] = low | carry;
+    }
+    return shifted;
+  }
+
+  // searches from the given cell until it reaches the stop cell, or until every cell it
+  // can reach is visited if the stop is -1, filling in the level each cell was reached at
+  // if given distances, and the order and levels modulo 3 if told to trace the search;
+  // returns the level the stop was reached at, or -1
+  int search(int from, int stop, int[] distance, boolean trace) {
+    int width = this.grid.width;
+    int q = width >>> 6;
+    int r = width & 63;
+    this.visited = new long[this.words];
+    long[] next = new long[this.words];
+    // the words of the frontier that have any cells in them, and those cells
+    int[] active = new int[16];
+    long[] frontier = new long[16];
+    int[] touched = new int[16];
+    int activeCount = 1;
+    active[0] = from >>> 6;
+    frontier[0] = 1L << from;
+    this.visited[from >>> 6] = 1L << from;
+    this.reached = 1;
+    this.levels = 0;
+    if (distance != null) {
+      Arrays.fill(distance, -1);
+      distance[from] = 0;
+    }
+    if (trace) {
+      this.order = new int[this.grid.size()];
+      this.order[0] = from;
+      this.thirdLow = new long[this.words];
+      this.thirdHigh = new long[this.words];
+    }
+    if (from == stop) {
+      return 0;
+    }
+    while (activeCount > 0) {
+      SearchResult.checkCancelled(this.levels);
+      int touchedCount = 0;
+      if (touched.length < activeCount * 8) {
+        touched = new int[activeCount * 8];
+      }
+      for (int i = 0; i < activeCount; i++) {
+        int w = active[i];
+        long f = frontier[i];
+        long e = f & this.east[w];
+        long wv = f & this.west[w];
+        long s = f & this.south[w];
+        long n = f & this.north[w];
+        if (e != 0) {
+          touchedCount = BitboardBfs.mark(next, touched, touchedCount, w, e << 1);
+          touchedCount = BitboardBfs.mark(next, touched, touchedCount, w + 1, e >>> 63);
+        }
+        if (wv != 0) {
+          touchedCount = BitboardBfs.mark(next, touched, touchedCount, w, wv >>> 1);
+          touchedCount = BitboardBfs.mark(next, touched, touchedCount, w - 1, wv << 63);
+        }
+        if (s != 0) {
+          touchedCount = BitboardBfs.mark(next, touched, touchedCount, w + q, s << r);
+          if (r != 0) {
+            touchedCount = BitboardBfs.mark(next, touched, touchedCount, w + q + 1,
+                s >>> (64 - r));
+          }
+        }
+        if (n != 0) {
+          touchedCount = BitboardBfs.mark(next, touched, touchedCount, w - q, n >>> r);
+          if (r != 0) {
+            touchedCount = BitboardBfs.mark(next, touched, touchedCount, w - q - 1,
+                n << (64 - r));
+          }
+        }
+      }
+      this.levels++;
+      if (frontier.length < touchedCount) {
+        active = new int[touchedCount];
+        frontier = new long[touchedCount];
+      }
+      activeCount = 0;
+      boolean found = false;
+      for (int i = 0; i < touchedCount; i++) {
+        int w = touched[i];
+        long fresh = next[w] & ~this.visited[w];
+        next[w] = 0;
+        if (fresh == 0) {
+          continue;
+        }
+        this.visited[w] |= fresh;
+        active[activeCount] = w;
+        frontier[activeCount] = fresh;
+        activeCount++;
+        if (trace) {
+          int third = this.levels % 3;
+          if ((third & 1) != 0) {
+            this.thirdLow[w] |= fresh;
+          }
+          if ((third & 2) != 0) {
+            this.thirdHigh[w] |= fresh;
+          }
+        }
+        if (distance != null || trace) {
+          for (long bits = fresh; bits != 0; bits &= bits - 1) {
+            int cell = (w << 6) + Long.numberOfTrailingZeros(bits);
+            if (distance != null) {
+              distance[cell] = this.levels;
+            }
+            if (trace) {
+              this.order[(int) this.reached] = cell;
+            }
+            this.reached++;
+          }
+        }
+        else {
+          this.reached += Long.bitCount(fresh);
+        }
+        if (stop >= 0 && w == stop >>> 6 && (fresh & (1L << stop)) != 0) {
+          found = true;
+        }
+      }
+      if (found) {
+        return this.levels;
+      }
+    }
+    this.levels--;
+    return -1;
+  }
+
+  // ors the bits into the word of the next frontier, remembering the word the first
+  // time it gets any, and returns the number of words remembered
+  static int mark(long[] next, int[] touched, int count, int w, long bits) {
+    if (bits == 0) {
+      return count;
+    }
+    if (next[w] == 0) {
+      touched[count++] = w;
+    }
+    next[w] |= bits;
+    return count;
+  }
+
+  // the number of steps from the given cell to every other, or -1 where it can't reach
+  int[] distances(int from) {
+    int[] distance = new int[this.grid.size()];
+    this.search(from, -1, distance, false);
+    return distance;
+  }
+
+  // the number of cells the given cell can reach, itself included
+  long floodCount(int from) {
+    this.search(from, -1, null, false);
+    return this.reached;
+  }
+
+  // the level the given cell was reached at in the last traced search, modulo 3
+  int third(int cell) {
+    long bit = 1L << cell;
+    return ((this.thirdLow[cell >>> 6] & bit) != 0 ? 1 : 0)
+        | ((this.thirdHigh[cell >>> 6] & bit) != 0 ? 2 : 0);
+  }
+
+  // the path from the start of the last traced search to the given cell, found at the
+  // given level, walking back one level at a time; a neighbor reached is one level nearer
+  // or further, and only the nearer one has the level below modulo 3
+  int[] pathTo(int goal, int level) {
+    int[] path = new int[level + 1];
+    int cell = goal;
+    for (int i = level; i > 0; i--) {
+      path[i] = cell;
+      for (int dir : MazeGrid.DIRECTIONS) {
+        if (this.grid.isOpen(cell, dir)) {
+          int n = this.grid.step(cell, dir);
+          if ((this.visited[n >>> 6] & (1L << n)) != 0 && this.third(n) == (i - 1) % 3) {
+            cell = n;
+            break;
+          }
+        }
+      }
+    }
+    path[0] = cell;
+    return path;
+  }
+}
+
+// to search a maze with the bitboard breadth first search, walking the path back
+// down the levels it found; slower than BfsSolver on perfect mazes, whose frontiers
+// are too narrow to fill a word, so it isn't one of the named solvers
+class BitboardSolver implements ISolver {
+
+  // searches the grid level by level, then steps back from the goal one level at a time
+  public SearchResult solve(MazeGrid grid, int start, int goal) {
+    BitboardBfs bfs = new BitboardBfs(grid);
+    int level = bfs.search(start, goal, null, true);
+    int[] visited = Arrays.copyOf(bfs.order, (int) bfs.reached);
+    if (level < 0) {
+      return new SearchResult(visited, new int[0]);
+    }
+    return new SearchResult(visited, bfs.pathTo(goal, level));
+  }
+}
+
+// to represent a growable double ended queue of ints, backed by a ring buffer
+class IntDeque {
+  int[] items;
+  int head;
+  int size;
+
+  IntDeque(int capacity) {
+    this.items = new int[Math.max(1, capacity)];
+  }
+
+  // adds an item to the back
+  void addLast(int item) {
+    if (this.size == this.items.length) {
+      int[] grown = new int[this.items.length * 2];
+      for (int i = 0; i < this.size; i++) {
+        grown[i] = this.items[(this.head + i) % this.items.length];
+      }
+      this.items = grown;
+      this.head = 0;
+    }
+    this.items[(this.head + this.size) % this.items.length] = item;
+    this.size++;
+  }
+
+  // removes and returns the item at the front
+  int pollFirst() {
+    if (this.size == 0) {
+      throw new NoSuchElementException("The deque is empty");
+    }
+    int item = this.items[this.head];
+    this.head = (this.head + 1) % this.items.length;
+    this.size--;
+    return item;
+  }
+
+  // removes and returns the item at the back
+  int pollLast() {
+    if (this.size == 0) {
+      throw new NoSuchElementException("The deque is empty");
+    }
+    this.size--;
+    return this.items[(this.head + this.size) % this.items.length];
+  }
+}
+
+// to search a maze breadth or depth first a few cells at a time, so the search
+// can pause between steps and only holds on to its frontier and parents
+class SearchStepper {
+  MazeGrid grid;
+  int start;
+  int goal;
+  boolean depthFirst;
+  IntDeque frontier;
+  BitSet seen;
+  // the direction each reached cell was reached in, as an index into
+  // MazeGrid.DIRECTIONS, four cells to a byte
+  byte[] cameFrom;
+  int visited;
+  boolean found;
+
+  SearchStepper(MazeGrid grid, int start, int goal, boolean depthFirst) {
+    this(grid, start, goal, depthFirst, null);
+  }
+
+  // a search that reuses the scratch arrays of an earlier one over a grid of the same
+  // size, if there is one, rather than allocating them for every search
+  SearchStepper(MazeGrid grid, int start, int goal, boolean depthFirst,
+      SearchStepper scratch) {
+    this.grid = grid;
+    this.start = start;
+    this.goal = goal;
+    this.depthFirst = depthFirst;
+    this.frontier = new IntDeque(64);
+    if (scratch != null && scratch.cameFrom.length == (grid.size() + 3) / 4) {
+      // only the cells seen are ever read back, so the directions needn't be cleared
+      this.seen = scratch.seen;
+      this.seen.clear();
+      this.cameFrom = scratch.cameFrom;
+    }
+    else {
+      this.seen = new BitSet(grid.size());
+      this.cameFrom = new byte[(grid.size() + 3) / 4];
+    }
+    this.frontier.addLast(start);
+    if (!depthFirst) {
+      this.seen.set(start);
+    }
+  }
+
+  // is the search over, either because it reached the goal or ran out of cells?
+  boolean isDone() {
+    return this.found || this.frontier.size == 0;
+  }
+
+  // visits up to the given number of cells, handing each one to the consumer in order,
+  // and returns how many it visited
+  int step(int budget, IntConsumer visit) {
+    int count = 0;
+    while (count < budget && !this.isDone()) {
+      int next = this.depthFirst ? this.frontier.pollLast() : this.frontier.pollFirst();
+      if (this.depthFirst) {
+        // depth first marks cells as they are visited, so a cell may be queued twice
+        if (this.seen.get(next)) {
+          continue;
+        }
+        this.seen.set(next);
+      }
+      count++;
+      this.visited++;
+      visit.accept(next);
+      if (next == this.goal) {
+        this.found = true;
+        break;
+      }
+      for (int code = 0; code < 4; code++) {
+        int dir = MazeGrid.DIRECTIONS[code];
+        if (this.grid.isOpen(next, dir)) {
+          int n = this.grid.step(next, dir);
+          if (!this.seen.get(n)) {
+            if (!this.depthFirst) {
+              this.seen.set(n);
+            }
+            int shift = (n & 3) * 2;
+            this.cameFrom[n >> 2] = (byte) ((this.cameFrom[n >> 2] & ~(3 << shift))
+                | (code << shift));
+            this.frontier.addLast(n);
+          }
+        }
+      }
+    }
+    return count;
+  }
+
+  // the cell the given cell was reached from
+  int parent(int c) {
+    int code = (this.cameFrom[c >> 2] >> ((c & 3) * 2)) & 3;
+    return this.grid.step(c, MazeGrid.opposite(MazeGrid.DIRECTIONS[code]));
+  }
+
+  // the path from the start to the goal, or an empty path if the goal wasn't found
+  int[] path() {
+    if (!this.found) {
+      return new int[0];
+    }
+    int length = 1;
+    for (int c = this.goal; c != this.start; c = this.parent(c)) {
+      length++;
+    }
+    int[] path = new int[length];
+    for (int c = this.goal, i = length - 1; i >= 0; i--) {
+      path[i] = c;
+      if (i > 0) {
+        c = this.parent(c);
+      }
+    }
+    return path;
+  }
+}
+
+// to represent a binary min heap of longs, used as a priority queue of cells
+// keyed by priority in the high bits and cell index in the low bits
+class LongMinHeap {
+  long[] items;
+  int size;
+
+  LongMinHeap(int capacity) {
+    this.items = new long[Math.max(1, capacity)];
+    this.size = 0;
+  }
+
+  // packs a priority and a cell index into one heap key
+  static long key(int priority, int value) {
+    return ((long) priority << 32) | (value & 0xFFFFFFFFL);
+  }
+
+  // unpacks the cell index from a heap key
+  static int value(long key) {
+    return (int) key;
+  }
+
+  // adds a key to the heap
+  void push(long item) {
+    if (this.size == this.items.length) {
+      this.items = Arrays.copyOf(this.items, this.size * 2);
+    }
+    int i = this.size++;
+    while (i > 0 && this.items[(i - 1) / 2] > item) {
+      this.items[i] = this.items[(i - 1) / 2];
+      i = (i - 1) / 2;
+    }
+    this.items[i] = item;
+  }
+
+  // removes and returns the smallest key in the heap
+  long pop() {
+    long top = this.items[0];
+    long last = this.items[--this.size];
+    int i = 0;
+    while (2 * i + 1 < this.size) {
+      int child = 2 * i + 1;
+      if (child + 1 < this.size && this.items[child + 1] < this.items[child]) {
+        child++;
+      }
+      if (this.items[child] >= last) {
+        break;
+      }
+      this.items[i] = this.items[child];
+      i = child;
+    }
+    this.items[i] = last;
+    return top;
+  }
+}
+
+// to answer path queries between any two cells of a perfect maze, by rooting
+// the maze tree at the first cell and using binary lifting to find ancestors
+class PathIndex {
+  MazeGrid grid;
+  int[] depth;
+  // up[k][c] is the ancestor 2^k steps above cell c, or the root itself
+  int[][] up;
+
+  PathIndex(MazeGrid grid) {
+    this.grid = grid;
+    int size = grid.size();
+    int levels = 1;
+    while ((1 << levels) < size) {
+      levels++;
+    }
+    this.depth = new int[size];
+    this.up = new int[levels][];
+    int[] parent = new int[size];
+    int[] queue = new int[size];
+    BitSet seen = new BitSet(size);
+    int head = 0;
+    int tail = 0;
+    queue[tail++] = 0;
+    seen.set(0);
+    while (head < tail) {
+      int next = queue[head++];
+      for (int dir : MazeGrid.DIRECTIONS) {
+        if (grid.isOpen(next, dir)) {
+          int n = grid.step(next, dir);
+          if (!seen.get(n)) {
+            seen.set(n);
+            parent[n] = next;
+            this.depth[n] = this.depth[next] + 1;
+            queue[tail++] = n;
+          }
+        }
+      }
+    }
+    if (tail != size) {
+      throw new IllegalArgumentException("The maze is not connected");
+    }
+    this.up[0] = parent;
+    for (int k = 1; k < levels; k++) {
+      int[] half = this.up[k - 1];
+      int[] level = new int[size];
+      for (int c = 0; c < size; c++) {
+        level[c] = half[half[c]];
+      }
+      this.up[k] = level;
+    }
+  }
+
+  // the ancestor of the cell the given number of steps towards the root
+  int ancestor(int c, int steps) {
+    for (int k = 0; steps > 0; k++, steps >>= 1) {
+      if ((steps & 1) != 0) {
+        c = this.up[k][c];
+      }
+    }
+    return c;
+  }
+
+  // the lowest common ancestor of the two cells
+  int lca(int a, int b) {
+    if (this.depth[a] < this.depth[b]) {
+      int swap = a;
+      a = b;
+      b = swap;
+    }
+    a = this.ancestor(a, this.depth[a] - this.depth[b]);
+    if (a == b) {
+      return a;
+    }
+    for (int k = this.up.length - 1; k >= 0; k--) {
+      if (this.up[k][a] != this.up[k][b]) {
+        a = this.up[k][a];
+        b = this.up[k][b];
+      }
+    }
+    return this.up[0][a];
+  }
+
+  // the number of steps on the path between the two cells
+  int distance(int a, int b) {
+    return this.depth[a] + this.depth[b] - 2 * this.depth[this.lca(a, b)];
+  }
+
+  // the cells on the path from a to b, both included, produced one at a time
+  PrimitiveIterator.OfInt path(int a, int b) {
+    return new PathCursor(this, a, b);
+  }
+
+  // the approximate heap size of this index
+  long bytes() {
+    return 4L * this.depth.length * (this.up.length + 1);
+  }
+
+  // the cells on the path from a to b as an array
+  int[] pathArray(int a, int b) {
+    int[] path = new int[this.distance(a, b) + 1];
+    PrimitiveIterator.OfInt cursor = this.path(a, b);
+    for (int i = 0; i < path.length; i++) {
+      path[i] = cursor.nextInt();
+    }
+    return path;
+  }
+}
+
+// to walk the path between two cells of a PathIndex lazily, first climbing
+// from the start to the common ancestor, then descending to the end
+class PathCursor implements PrimitiveIterator.OfInt {
+  PathIndex index;
+  int current;
+  int end;
+  // the number of cells after the common ancestor on the way down to the end
+  int down;
+  int remaining;
+
+  PathCursor(PathIndex index, int start, int end) {
+    this.index = index;
+    this.current = start;
+    this.end = end;
+    this.down = index.depth[end] - index.depth[index.lca(start, end)];
+    this.remaining = index.distance(start, end) + 1;
+  }
+
+  // are there cells left on the path?
+  public boolean hasNext() {
+    return this.remaining > 0;
+  }
+
+  // the next cell on the path
+  public int nextInt() {
+    if (this.remaining == 0) {
+      throw new NoSuchElementException("The path has no more cells");
+    }
+    int result = this.current;
+    this.remaining--;
+    if (this.remaining > this.down) {
+      this.current = this.index.up[0][this.current];
+    }
+    else if (this.remaining > 0) {
+      this.current = this.index.ancestor(this.end, this.remaining - 1);
+    }
+    return result;
+  }
+}
+
+// to find the way to the exit from any cell of a maze, keeping only the direction of
+// the next step toward the exit for each cell, so it fits alongside the largest mazes
+class ExitRoute {
+  // one daemon thread shared by every game, for mazes too large to route between frames
+  static ExecutorService FINDER = Executors.newSingleThreadExecutor(task -> {
+    Thread thread = new Thread(task, "exit-route");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  MazeGrid grid;
+  int exit;
+  // the direction of the next step toward the exit from each cell, or 0 for the exit
+  // itself and for cells that can't reach it
+  byte[] toward;
+
+  // searches the maze breadth first from the exit
+  ExitRoute(MazeGrid grid, int exit) {
+    this.grid = grid;
+    this.exit = exit;
+    this.toward = new byte[grid.size()];
+    // the frontier is far smaller than the maze, so the queue is a ring that only
+    // grows when it fills up
+    int[] ring = new int[64];
+    int head = 0;
+    int count = 1;
+    int visited = 0;
+    ring[0] = exit;
+    while (count > 0) {
+      SearchResult.checkCancelled(++visited);
+      int next = ring[head];
+      head = (head + 1) & (ring.length - 1);
+      count--;
+      for (int dir : MazeGrid.DIRECTIONS) {
+        if (grid.isOpen(next, dir)) {
+          int n = grid.step(next, dir);
+          if (n != exit && this.toward[n] == 0) {
+            this.toward[n] = (byte) MazeGrid.opposite(dir);
+            if (count == ring.length) {
+              int[] bigger = new int[ring.length * 2];
+              for (int i = 0; i < count; i++) {
+                bigger[i] = ring[(head + i) & (ring.length - 1)];
+              }
+              ring = bigger;
+              head = 0;
+            }
+            ring[(head + count) & (ring.length - 1)] = n;
+            count++;
+          }
+        }
+      }
+    }
+  }
+
+  // finds the route on the shared thread; cancelling the future stops the search
+  static Future<ExitRoute> find(MazeGrid grid, int exit) {
+    return ExitRoute.FINDER.submit(() -> new ExitRoute(grid, exit));
+  }
+
+  // the route found in the background, once it is done
+  static ExitRoute await(Future<ExitRoute> future) {
+    try {
+      return future.get();
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while finding the exit", e);
+    }
+    catch (ExecutionException e) {
+      throw new IllegalStateException("Finding the exit failed", e.getCause());
+    }
+  }
+
+  // the number of steps from the cell to the exit, or -1 if it can't reach the exit
+  int distance(int from) {
+    int steps = 0;
+    for (int c = from; c != this.exit; c = this.grid.step(c, this.toward[c])) {
+      if (this.toward[c] == 0) {
+        return -1;
+      }
+      steps++;
+    }
+    return steps;
+  }
+
+  // the distance from a cell given the distance from the neighbor the player just left,
+  // only walking to the exit when the move neither follows nor backs up the route
+  int distance(int from, int to, int known) {
+    if (known >= 0 && this.toward[to] != 0 && this.grid.step(to, this.toward[to]) == from) {
+      return known + 1;
+    }
+    if (known > 0 && this.grid.step(from, this.toward[from]) == to) {
+      return known - 1;
+    }
+    return this.distance(to);
+  }
+
+  // the cells from the exit back to the given cell, or none if it can't reach the exit
+  int[] path(int from) {
+    int steps = this.distance(from);
+    if (steps < 0) {
+      return new int[0];
+    }
+    int[] path = new int[steps + 1];
+    int c = from;
+    for (int i = steps; i > 0; i--) {
+      path[i] = c;
+      c = this.grid.step(c, this.toward[c]);
+    }
+    path[0] = c;
+    return path;
+  }
+}
+
+// to represent the part of a maze that is in view, as the first column and row
+// shown and the zoom level the cells are drawn at
+class Camera {
+  // the cell sizes, in pixels, that the camera zooms between
+  static int[] ZOOMS = { 4, 8, 16, 32 };
+  // how close, in cells, the player can get to the edge of the view before it scrolls
+  static int MARGIN = 4;
+  // the height, in pixels, kept free below the view for the game message
+  static int MESSAGE_BAND = 40;
+
+  int mazeWidth;
+  int mazeHeight;
+  int viewWidth;
+  int viewHeight;
+  int zoom;
+  // the first column and row in view
+  int left;
+  int top;
+
+  Camera(int mazeWidth, int mazeHeight, int viewWidth, int viewHeight) {
+    this.mazeWidth = mazeWidth;
+    this.mazeHeight = mazeHeight;
+    this.viewWidth = viewWidth;
+    this.viewHeight = viewHeight;
+    this.zoom = 0;
+    this.left = 0;
+    this.top = 0;
+  }
+
+  // is a maze of this size too large to draw whole at the smallest cell size?
+  static boolean isNeeded(int mazeWidth, int mazeHeight, int viewWidth, int viewHeight) {
+    return viewWidth / mazeWidth < ZOOMS[0] || viewHeight / mazeHeight < ZOOMS[0];
+  }
+
+  // the size, in pixels, each cell is drawn at
+  int cellSize() {
+    return ZOOMS[this.zoom];
+  }
+
+  // the number of columns in view
+  int columns() {
+    return Math.min(this.mazeWidth, this.viewWidth / this.cellSize());
+  }
+
+  // the number of rows in view
+  int rows() {
+    return Math.min(this.mazeHeight, this.viewHeight / this.cellSize());
+  }
+
+  // is the cell at the given position in view?
+  boolean isVisible(int x, int y) {
+    return x >= this.left && x < this.left + this.columns() && y >= this.top
+        && y < this.top + this.rows();
+  }
+
+  // moves the view so the given cell is its top left, as far as the maze allows
+  void scrollTo(int left, int top) {
+    this.left = Math.max(0, Math.min(left, this.mazeWidth - this.columns()));
+    this.top = Math.max(0, Math.min(top, this.mazeHeight - this.rows()));
+  }
+
+  // moves the view by the given number of cells
+  void scroll(int dx, int dy) {
+    this.scrollTo(this.left + dx, this.top + dy);
+  }
+
+  // zooms in by the given number of levels, or out if it is negative, keeping the
+  // cell in the middle of the view where it is
+  void zoom(int levels) {
+    int x = this.left + this.columns() / 2;
+    int y = this.top + this.rows() / 2;
+    this.zoom = Math.max(0, Math.min(this.zoom + levels, ZOOMS.length - 1));
+    this.scrollTo(x - this.columns() / 2, y - this.rows() / 2);
+  }
+
+  // scrolls just far enough to keep the given cell a margin away from the edge of the view
+  void follow(int x, int y) {
+    int marginX = Math.min(MARGIN, (this.columns() - 1) / 2);
+    int marginY = Math.min(MARGIN, (this.rows() - 1) / 2);
+    int left = this.left;
+    int top = this.top;
+    if (x < left + marginX) {
+      left = x - marginX;
+    }
+    else if (x >= left + this.columns() - marginX) {
+      left = x - this.columns() + marginX + 1;
+    }
+    if (y < top + marginY) {
+      top = y - marginY;
+    }
+    else if (y >= top + this.rows() - marginY) {
+      top = y - this.rows() + marginY + 1;
+    }
+    this.scrollTo(left, top);
+  }
+}
+
+// to draw a MazeGame incrementally: the maze layer is drawn once, and each frame only
+// draws the cells that changed since the last one into it; how that layer becomes a
+// scene is up to each renderer
+abstract class AMazeRenderer {
+  // the color of each solver's corner of the cell in a race, in the order they finished
+  static Color[] RACE_COLORS = { Color.CYAN, Color.ORANGE, Color.MAGENTA, Color.GREEN };
+
+  int cellSize;
+  int offset;
+  // the game state the maze layer was drawn from
+  MazeGrid grid;
+  SearchTrace searched;
+  int[] correctPath;
+  SearchTrace playerSearched;
+  boolean drawn;
+  int drawnSearched;
+  int drawnPlayer;
+  // the grid index of the cell drawn as the player's, or -1
+  int drawnCurrent;
+  int drawnPath;
+  String message;
+  // the grid indices of the cells on the path that have been drawn
+  BitSet onPath;
+  // read the search trace and the player's trail from the first cell not yet drawn
+  TraceCursor searchCursor;
+  TraceCursor playerCursor;
+  ArrayList<SolverStats> race;
+  int drawnRace;
+
+  // the scene for the game, redrawing the maze only if the maze or search was replaced
+  WorldScene render(MazeGame game) {
+    if (this.isStale(game)) {
+      this.rebuild(game);
+    }
+    this.drawChanges(game);
+    return this.frame(game);
+  }
+
+  // forgets what was drawn so the next frame is drawn from scratch
+  void invalidate() {
+    this.drawn = false;
+  }
+
+  // can the drawn maze no longer be brought up to date by drawing over it?
+  boolean isStale(MazeGame game) {
+    return !this.drawn || this.grid != game.grid
+        || this.searched != game.searched
+        || (this.correctPath != game.correctPath && this.drawnPath > 0)
+        || this.playerSearched != game.playerSearched || this.race != game.race
+        || this.drawnRace > game.raceCounter
+        || this.drawnSearched > game.searchedCounter
+        || this.drawnPlayer > game.playerSearched.size()
+        || this.drawnPath > game.correctPath.length
+        || (this.drawnPath > 0 && !this.isPathShown(game));
+  }
+
+  // resets what has been drawn and draws the static maze layer
+  void rebuild(MazeGame game) {
+    this.cellSize = MazeGame.TOTAL_WIDTH / game.width;
+    this.offset = this.cellSize / 2;
+    this.grid = game.grid;
+    this.searched = game.searched;
+    this.correctPath = game.correctPath;
+    this.playerSearched = game.playerSearched;
+    this.drawn = true;
+    this.drawnSearched = 0;
+    this.drawnPlayer = 0;
+    this.drawnCurrent = -1;
+    this.drawnPath = 0;
+    this.message = null;
+    this.onPath = new BitSet();
+    this.searchCursor = game.searched.cursor();
+    this.playerCursor = game.playerSearched.cursor();
+    this.race = game.race;
+    this.drawnRace = 0;
+    this.drawMaze(game);
+  }
+
+  // draws the player moves, search steps and path added since the last frame
+  void drawChanges(MazeGame game) {
+    for (; this.drawnPlayer < game.playerSearched.size(); this.drawnPlayer++) {
+      this.placeVisited(game, this.playerCursor.nextInt());
+    }
+    int searchedEnd = Math.min(game.searchedCounter, game.searched.size());
+    for (; this.drawnSearched < searchedEnd; this.drawnSearched++) {
+      this.placeVisited(game, this.searchCursor.nextInt());
+    }
+    if (game.race != null) {
+      for (; this.drawnRace < game.raceCounter; this.drawnRace++) {
+        for (int i = 0; i < game.race.size(); i++) {
+          SolverStats stats = game.race.get(i);
+          if (this.drawnRace < stats.expanded()) {
+            this.placeQuarter(stats.result.order[this.drawnRace], i,
+                AMazeRenderer.RACE_COLORS[i % AMazeRenderer.RACE_COLORS.length]);
+          }
+        }
+      }
+    }
+
+    if (this.drawnCurrent != game.current) {
+      if (this.drawnCurrent >= 0) {
+        this.placeVisited(game, this.drawnCurrent);
+      }
+      this.place(game.current, Color.BLUE);
+      this.drawnCurrent = game.current;
+    }
+
+    // a path that arrives once nothing of the last one is drawn can just be drawn
+    this.correctPath = game.correctPath;
+    if (this.isPathShown(game)) {
+      for (; this.drawnPath < game.correctPath.length; this.drawnPath++) {
+        int idx = game.correctPath[this.drawnPath];
+        this.place(idx, Color.BLUE);
+        this.onPath.set(idx);
+      }
+    }
+
+    // the message is placed in every frame rather than drawn over the maze
+    this.message = game.statusMessage();
+  }
+
+  // is the correct path shown, either because the search finished or the maze is solved?
+  boolean isPathShown(MazeGame game) {
+    return game.searchedCounter == game.searched.size() || game.solved;
+  }
+
+  // draws a visited cell, which stays blue if it is on the path or is the player's cell
+  void placeVisited(MazeGame game, int idx) {
+    if (idx == game.current || this.onPath.get(idx)) {
+      this.place(idx, Color.BLUE);
+    }
+    else {
+      this.place(idx, Color.CYAN);
+    }
+  }
+
+  // draws the background, the cells and the passages of the maze
+  abstract void drawMaze(MazeGame game);
+
+  // draws the cell at the given grid index in the given color
+  abstract void place(int idx, Color color);
+
+  // draws one quarter of a cell in the given color, counting the quarters left to right
+  // and then top to bottom
+  abstract void placeQuarter(int idx, int quarter, Color color);
+
+  // the scene to show for this frame
+  abstract WorldScene frame(MazeGame game);
+}
+
+// to draw a small MazeGame by placing one image per cell and passage, keeping only the
+// color each cell was last drawn in, so each frame places a fixed number of images however
+// long the game has been played; a javalib WorldScene can only be added to, so the frame
+// can't keep the last one and place just the changed cells over it, and placing the whole
+// board each frame is why larger boards go to the RasterRenderer instead
+class SceneRenderer extends AMazeRenderer {
+  // the color each cell was last drawn in, by grid index
+  Color[] colors;
+  // the race quarters drawn over each cell since it was last drawn, as bits
+  byte[] quarters;
+
+  // forgets what every cell was drawn in
+  void drawMaze(MazeGame game) {
+    this.colors = new Color[this.grid.size()];
+    Arrays.fill(this.colors, Color.LIGHT_GRAY);
+    this.quarters = new byte[this.grid.size()];
+  }
+
+  // records the cell's color, covering any quarters drawn over it
+  void place(int idx, Color color) {
+    this.colors[idx] = color;
+    this.quarters[idx] = 0;
+  }
+
+  // records that the quarter was drawn over the cell, or colors the whole cell if a
+  // quarter would be too small to see; the quarters are always drawn in their race colors
+  void placeQuarter(int idx, int quarter, Color color) {
+    if (this.cellSize / 2 < 3) {
+      this.place(idx, color);
+      return;
+    }
+    this.quarters[idx] |= (byte) (1 << (quarter & 3));
+  }
+
+  // a scene holding the background, the passages, every cell in its color with the
+  // quarters over it, and the message
+  WorldScene frame(MazeGame game) {
+    WorldScene ws = game.getEmptyScene();
+    ws.placeImageXY(new RectangleImage(MazeGame.TOTAL_WIDTH, MazeGame.TOTAL_HEIGHT,
+        OutlineMode.SOLID, Color.DARK_GRAY), MazeGame.TOTAL_WIDTH / 2, MazeGame.TOTAL_HEIGHT / 2);
+    int size = this.cellSize;
+    int half = size / 2;
+    // a passage covers half of each of its cells, so the cells go over the passages
+    WorldImage passage = CellImages.get(size, Color.LIGHT_GRAY);
+    for (int idx = 0; idx < this.grid.size(); idx++) {
+      int x = idx % this.grid.width;
+      int y = idx / this.grid.width;
+      if (this.grid.isOpen(idx, MazeGrid.EAST)) {
+        ws.placeImageXY(passage, (2 * x + 1) * size / 2 + this.offset, y * size + this.offset);
+      }
+      if (this.grid.isOpen(idx, MazeGrid.SOUTH)) {
+        ws.placeImageXY(passage, x * size + this.offset, (2 * y + 1) * size / 2 + this.offset);
+      }
+    }
+    for (int idx = 0; idx < this.grid.size(); idx++) {
+      int x = idx % this.grid.width;
+      int y = idx / this.grid.width;
+      ws.placeImageXY(CellImages.get(size, this.colors[idx]), x * size + this.offset,
+          y * size + this.offset);
+      for (int quarter = 0; quarter < 4; quarter++) {
+        if ((this.quarters[idx] & (1 << quarter)) != 0) {
+          ws.placeImageXY(CellImages.get(half, AMazeRenderer.RACE_COLORS[quarter]),
+              x * size + (quarter & 1) * half + half / 2,
+              y * size + ((quarter >> 1) & 1) * half + half / 2);
+        }
+      }
+    }
+    ws.placeImageXY(new TextImage(this.message, 20, Color.BLACK),
+        size * game.width / 2, size * game.height + this.offset);
+    return ws;
+  }
+}
+
+// to draw a MazeGame by painting pixels into a single image, so each frame
+// places one image however large the maze is
+class RasterRenderer extends AMazeRenderer {
+  ComputedPixelImage image;
+
+  // paints the walls, the cells and the passages into a new image
+  void drawMaze(MazeGame game) {
+    this.image = new ComputedPixelImage(Math.max(1, this.cellSize * game.width),
+        Math.max(1, this.cellSize * game.height));
+    this.fill(0, 0, this.cellSize * game.width, this.cellSize * game.height, Color.DARK_GRAY);
+    for (int idx = 0; idx < this.grid.size(); idx++) {
+      this.place(idx, Color.LIGHT_GRAY);
+    }
+    // a passage covers the wall between its two cells
+    for (int idx = 0; idx < this.grid.size(); idx++) {
+      int x = this.grid.xOf(idx);
+      int y = this.grid.yOf(idx);
+      if (this.grid.isOpen(idx, MazeGrid.EAST)) {
+        this.fill((x + 1) * this.cellSize - 1, y * this.cellSize + 1, (x + 1) * this.cellSize + 1,
+            (y + 1) * this.cellSize - 1, Color.LIGHT_GRAY);
+      }
+      if (this.grid.isOpen(idx, MazeGrid.SOUTH)) {
+        this.fill(x * this.cellSize + 1, (y + 1) * this.cellSize - 1, (x + 1) * this.cellSize - 1,
+            (y + 1) * this.cellSize + 1, Color.LIGHT_GRAY);
+      }
+    }
+  }
+
+  // paints the pixels of a single cell
+  void place(int idx, Color color) {
+    int x = this.grid.xOf(idx);
+    int y = this.grid.yOf(idx);
+    this.fill(x * this.cellSize + 1, y * this.cellSize + 1, (x + 1) * this.cellSize - 1,
+        (y + 1) * this.cellSize - 1, color);
+  }
+
+  // paints the pixels of one quarter of a cell, or of the whole cell if a quarter
+  // would be too small to see
+  void placeQuarter(int idx, int quarter, Color color) {
+    int inner = this.cellSize - 2;
+    if (inner < 2) {
+      this.place(idx, color);
+      return;
+    }
+    int left = this.grid.xOf(idx) * this.cellSize + 1 + (quarter & 1) * (inner / 2);
+    int top = this.grid.yOf(idx) * this.cellSize + 1 + ((quarter >> 1) & 1) * (inner / 2);
+    this.fill(left, top, left + inner / 2, top + inner / 2, color);
+  }
+
+  // paints the pixels from (left, top) up to but not including (right, bottom)
+  void fill(int left, int top, int right, int bottom, Color color) {
+    for (int y = top; y < bottom; y++) {
+      for (int x = left; x < right; x++) {
+        this.image.setPixel(x, y, color);
+      }
+    }
+  }
+
+  // a scene holding the background, the maze image and the message
+  WorldScene frame(MazeGame game) {
+    WorldScene ws = game.getEmptyScene();
+    ws.placeImageXY(new RectangleImage(MazeGame.TOTAL_WIDTH, MazeGame.TOTAL_HEIGHT,
+        OutlineMode.SOLID, Color.DARK_GRAY), MazeGame.TOTAL_WIDTH / 2, MazeGame.TOTAL_HEIGHT / 2);
+    ws.placeImageXY(this.image, this.cellSize * game.width / 2, this.cellSize * game.height / 2);
+    ws.placeImageXY(new TextImage(this.message, 20, Color.BLACK),
+        this.cellSize * game.width / 2, this.cellSize * game.height + this.offset);
+    return ws;
+  }
+}
+
+// to draw only the cells of a large maze that are in the game camera's view, painting
+// them straight from the grid into an image the size of the window, so a frame costs
+// the same however many cells the maze has
+class ViewportRenderer extends AMazeRenderer {
+  Camera camera;
+  ComputedPixelImage image;
+  // the color each cell was last drawn in, as an index into colors in the low four bits,
+  // and which quarters were drawn over it since in the high four bits
+  byte[] state;
+  ArrayList<Color> colors;
+  // the view the image was painted for
+  int paintedLeft;
+  int paintedTop;
+  int paintedZoom;
+
+  // forgets what every cell was drawn in and paints the cells in view
+  void drawMaze(MazeGame game) {
+    this.camera = game.camera;
+    if (this.state == null || this.state.length != this.grid.size()) {
+      this.state = new byte[this.grid.size()];
+    }
+    else {
+      Arrays.fill(this.state, (byte) 0);
+    }
+    this.colors = new ArrayList<Color>();
+    this.colors.add(Color.LIGHT_GRAY);
+    this.paint();
+  }
+
+  // paints every cell in view, in a new image if the view changed size
+  void paint() {
+    this.cellSize = this.camera.cellSize();
+    this.offset = this.cellSize / 2;
+    int width = this.camera.columns() * this.cellSize;
+    int height = this.camera.rows() * this.cellSize;
+    if (this.image == null || this.image.getWidth() != width
+        || this.image.getHeight() != height) {
+      this.image = new ComputedPixelImage(width, height);
+    }
+    for (int y = this.camera.top; y < this.camera.top + this.camera.rows(); y++) {
+      for (int x = this.camera.left; x < this.camera.left + this.camera.columns(); x++) {
+        this.paintCell(x, y);
+      }
+    }
+    this.paintedLeft = this.camera.left;
+    this.paintedTop = this.camera.top;
+    this.paintedZoom = this.camera.zoom;
+  }
+
+  // paints the walls, passages and colors of the cell at the given position, which must
+  // be in view
+  void paintCell(int x, int y) {
+    int idx = this.grid.index(x, y);
+    int size = this.cellSize;
+    int left = (x - this.camera.left) * size;
+    int top = (y - this.camera.top) * size;
+    int right = left + size - 1;
+    int bottom = top + size - 1;
+    // every pixel is painted once: the inside, the four sides, then the four corners
+    this.fill(left + 1, top + 1, right, bottom, this.colors.get(this.state[idx] & 15));
+    this.fill(right, top + 1, right + 1, bottom, this.wallColor(idx, MazeGrid.EAST));
+    this.fill(left, top + 1, left + 1, bottom, this.wallColor(idx, MazeGrid.WEST));
+    this.fill(left + 1, bottom, right, bottom + 1, this.wallColor(idx, MazeGrid.SOUTH));
+    this.fill(left + 1, top, right, top + 1, this.wallColor(idx, MazeGrid.NORTH));
+    this.image.setPixel(left, top, Color.DARK_GRAY);
+    this.image.setPixel(right, top, Color.DARK_GRAY);
+    this.image.setPixel(left, bottom, Color.DARK_GRAY);
+    this.image.setPixel(right, bottom, Color.DARK_GRAY);
+    int half = (size - 2) / 2;
+    for (int quarter = 0; quarter < 4; quarter++) {
+      if ((this.state[idx] & (16 << quarter)) != 0) {
+        int qx = left + 1 + (quarter & 1) * half;
+        int qy = top + 1 + ((quarter >> 1) & 1) * half;
+        this.fill(qx, qy, qx + half, qy + half, AMazeRenderer.RACE_COLORS[quarter]);
+      }
+    }
+  }
+
+  // the color of the side of a cell, which is only a wall if the passage is closed
+  Color wallColor(int idx, int dir) {
+    return this.grid.isOpen(idx, dir) ? Color.LIGHT_GRAY : Color.DARK_GRAY;
+  }
+
+  // records the cell's color, painting it if it is in view
+  void place(int idx, Color color) {
+    int code = this.colors.indexOf(color);
+    if (code < 0) {
+      if (this.colors.size() == 16) {
+        throw new IllegalStateException("Too many cell colors to record");
+      }
+      code = this.colors.size();
+      this.colors.add(color);
+    }
+    this.state[idx] = (byte) code;
+    this.paintIfVisible(idx);
+  }
+
+  // records that the quarter was drawn over the cell, painting it if it is in view;
+  // the quarters are always painted in their race colors
+  void placeQuarter(int idx, int quarter, Color color) {
+    this.state[idx] |= (byte) (16 << (quarter & 3));
+    this.paintIfVisible(idx);
+  }
+
+  // paints the cell at the given grid index if it is in view
+  void paintIfVisible(int idx) {
+    int x = this.grid.xOf(idx);
+    int y = this.grid.yOf(idx);
+    if (this.camera.isVisible(x, y)) {
+      this.paintCell(x, y);
+    }
+  }
+
+  // paints the pixels from (left, top) up to but not including (right, bottom)
+  void fill(int left, int top, int right, int bottom, Color color) {
+    for (int y = top; y < bottom; y++) {
+      for (int x = left; x < right; x++) {
+        this.image.setPixel(x, y, color);
+      }
+    }
+  }
+
+  // a scene holding the background, the cells in view and the message, painting the
+  // view again first if the camera moved since the last frame
+  WorldScene frame(MazeGame game) {
+    if (this.paintedLeft != this.camera.left || this.paintedTop != this.camera.top
+        || this.paintedZoom != this.camera.zoom) {
+      this.paint();
+    }
+    int width = this.camera.columns() * this.cellSize;
+    int height = this.camera.rows() * this.cellSize;
+    WorldScene ws = game.getEmptyScene();
+    ws.placeImageXY(new RectangleImage(MazeGame.TOTAL_WIDTH, MazeGame.TOTAL_HEIGHT,
+        OutlineMode.SOLID, Color.DARK_GRAY), MazeGame.TOTAL_WIDTH / 2, MazeGame.TOTAL_HEIGHT / 2);
+    ws.placeImageXY(this.image, width / 2, height / 2);
+    ws.placeImageXY(new TextImage(this.message, 20, Color.BLACK), width / 2,
+        height + Camera.MESSAGE_BAND / 2);
+    return ws;
+  }
+}
+
+// to look up generators and solvers by name, for modes that run without the game
+class Algorithms {
+  // a tile generator is named tile for the default tile size, or tile64 for 64 cells a side
+  static String GENERATORS = "kruskal, eller, tile";
+  static String SOLVERS = "bfs, dfs, astar, bidirectional, junction";
+
+  // the generator with the given name
+  static IMazeGenerator generator(String name) {
+    if (name.equals("kruskal")) {
+      return new KruskalGenerator();
+    }
+    else if (name.equals("eller")) {
+      return new EllerGenerator();
+    }
+    else if (name.equals("tile")) {
+      return new TileGenerator();
+    }
+    else if (name.matches("tile[1-9][0-9]{0,8}")) {
+      return new TileGenerator(Integer.parseInt(name.substring(4)), ForkJoinPool.commonPool());
+    }
+    else {
+      throw new IllegalArgumentException(
+          "Unknown generator " + name + ", expected one of " + GENERATORS);
+    }
+  }
+
+  // the name of the given generator, or null if it can't be recreated from its name
+  static String generatorName(IMazeGenerator generator) {
+    if (generator instanceof KruskalGenerator) {
+      return "kruskal";
+    }
+    else if (generator instanceof EllerGenerator) {
+      return "eller";
+    }
+    else if (generator instanceof TileGenerator) {
+      int tileSize = ((TileGenerator) generator).tileSize;
+      return tileSize == 256 ? "tile" : "tile" + tileSize;
+    }
+    else {
+      return null;
+    }
+  }
+
+  // the name of the given solver, or null if it isn't one of the named solvers
+  static String solverName(ISolver solver) {
+    if (solver instanceof BfsSolver) {
+      return "bfs";
+    }
+    else if (solver instanceof DfsSolver) {
+      return "dfs";
+    }
+    else if (solver instanceof AStarSolver) {
+      return "astar";
+    }
+    else if (solver instanceof BidirectionalBfsSolver) {
+      return "bidirectional";
+    }
+    else if (solver instanceof JunctionSolver) {
+      return "junction";
+    }
+    else {
+      return null;
+    }
+  }
+
+  // the solver with the given name
+  static ISolver solver(String name) {
+    if (name.equals("bfs")) {
+      return new BfsSolver();
+    }
+    else if (name.equals("dfs")) {
+      return new DfsSolver();
+    }
+    else if (name.equals("astar")) {
+      return new AStarSolver();
+    }
+    else if (name.equals("bidirectional")) {
+      return new BidirectionalBfsSolver();
+    }
+    else if (name.equals("junction")) {
+      return new JunctionSolver();
+    }
+    else {
+      throw new IllegalArgumentException(
+          "Unknown solver " + name + ", expected one of " + SOLVERS);
+    }
+  }
+}
+
+// to represent how one solver did in a race, in the order it finished
+class SolverStats {
+  String name;
+  long nanos;
+  // the place it finished in, from 0, or -1 if it was cancelled before finishing
+  int rank;
+  // the search it made, or null if it was cancelled
+  SearchResult result;
+
+  SolverStats(String name, long nanos, int rank, SearchResult result) {
+    this.name = name;
+    this.nanos = nanos;
+    this.rank = rank;
+    this.result = result;
+  }
+
+  // was this solver stopped before it finished?
+  boolean isCancelled() {
+    return this.result == null;
+  }
+
+  // the number of cells it expanded, or 0 if it was cancelled
+  int expanded() {
+    return this.result == null ? 0 : this.result.order.length;
+  }
+
+  // the length of the path it found, or 0 if it was cancelled or found none
+  int pathLength() {
+    return this.result == null ? 0 : this.result.path.length;
+  }
+
+  // a one line summary of the solver's run
+  public String toString() {
+    if (this.isCancelled()) {
+      return this.name + ": cancelled";
+    }
+    return String.format("%s: #%d, %d expanded, path %d, %.3f ms", this.name, this.rank + 1,
+        this.expanded(), this.pathLength(), this.nanos / 1e6);
+  }
+}
+
+// to run several solvers on the same maze at once, each on its own core, so
+// comparing them takes as long as the slowest one instead of all of them in turn
+class SolverRace {
+  // daemon threads shared by every race, one per core
+  static ExecutorService POOL = Executors.newFixedThreadPool(
+      Runtime.getRuntime().availableProcessors(), task -> {
+        Thread thread = new Thread(task, "solver-race");
+        thread.setDaemon(true);
+        return thread;
+      });
+  // the daemon thread that waits on each race started by start, kept apart from POOL so
+  // waiting never takes a core a solver needs
+  static ExecutorService REFEREE = Executors.newSingleThreadExecutor(task -> {
+    Thread thread = new Thread(task, "solver-race-referee");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  // runs the race in the background, returning its stats once every solver has finished;
+  // cancelling the future interrupts the referee, which cancels every solver still running
+  static Future<ArrayList<SolverStats>> start(MazeGrid grid, int start, int goal,
+      ArrayList<String> solvers) {
+    for (String name : solvers) {
+      // look every solver up here, so an unknown name fails on the caller's thread
+      Algorithms.solver(name);
+    }
+    // freeze the grid before returning, so the caller can change the maze straight away
+    ImmutableMazeGrid frozen = grid.freeze();
+    return REFEREE.submit(() -> SolverRace.run(frozen, start, goal, solvers, false));
+  }
+
+  // waits for a race started by start to finish
+  static ArrayList<SolverStats> await(Future<ArrayList<SolverStats>> race) {
+    try {
+      return race.get();
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for the race", e);
+    }
+    catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new IllegalStateException("The race failed", e.getCause());
+    }
+  }
+
+  // how long each solver took, in the order they finished, on one line
+  static String summary(ArrayList<SolverStats> stats) {
+    StringBuilder out = new StringBuilder();
+    for (SolverStats s : stats) {
+      if (out.length() > 0) {
+        out.append(", ");
+      }
+      out.append(s.name).append(s.isCancelled() ? " cancelled"
+          : String.format(Locale.ROOT, " %.3f ms", s.nanos / 1e6));
+    }
+    return out.toString();
+  }
+
+  // runs the named solvers on a frozen copy of the grid, returning their stats in the
+  // order they finished, followed by any that were cancelled once the first one finished
+  static ArrayList<SolverStats> run(MazeGrid grid, int start, int goal,
+      ArrayList<String> solvers, boolean cancelRest) {
+    ImmutableMazeGrid frozen = grid.freeze();
+    CompletionService<SolverStats> done = new ExecutorCompletionService<SolverStats>(POOL);
+    LinkedHashMap<String, Future<SolverStats>> running =
+        new LinkedHashMap<String, Future<SolverStats>>();
+    for (String name : solvers) {
+      // look the solver up here, so an unknown name fails before anything runs
+      ISolver solver = Algorithms.solver(name);
+      running.put(name, done.submit(() -> SolverRace.time(name, solver, frozen, start, goal)));
+    }
+    ArrayList<SolverStats> stats = new ArrayList<SolverStats>(solvers.size());
+    try {
+      while (stats.size() < running.size()) {
+        SolverStats next = done.take().get();
+        next.rank = stats.size();
+        stats.add(next);
+        MazeMetrics.searched(next.name, next.expanded(), next.pathLength());
+        if (cancelRest) {
+          break;
+        }
+      }
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while racing solvers", e);
+    }
+    catch (ExecutionException e) {
+      throw new IllegalStateException("A solver in the race failed", e.getCause());
+    }
+    finally {
+      for (Future<SolverStats> future : running.values()) {
+        future.cancel(true);
+      }
+    }
+    for (String name : running.keySet()) {
+      if (!SolverRace.contains(stats, name)) {
+        stats.add(new SolverStats(name, 0, -1, null));
+      }
+    }
+    return stats;
+  }
+
+  // runs one solver, timing it on the thread it runs on
+  static SolverStats time(String name, ISolver solver, MazeGrid grid, int start, int goal) {
+    long before = System.nanoTime();
+    SearchResult result = solver.solve(grid, start, goal);
+    return new SolverStats(name, System.nanoTime() - before, 0, result);
+  }
+
+  // has the named solver already finished?
+  static boolean contains(ArrayList<SolverStats> stats, String name) {
+    for (SolverStats s : stats) {
+      if (s.name.equals(name)) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
+
+// to measure how hard a maze is in two breadth first passes: how far every cell is
+// from the exit, the longest path through the maze, and how its cells branch
+class MazeAnalytics {
+  static String CSV_HEADER = "diameter,deadEnds,junctions,solutionLength,solutionShare";
+
+  // the number of steps from each cell to the exit, or -1 if it can't reach the exit
+  int[] distance;
+  // the number of steps along a longest path, and the cells at either end of it
+  int diameter;
+  int diameterStart;
+  int diameterEnd;
+  // degreeHistogram[d] is the number of cells reachable from the exit with d passages
+  int[] degreeHistogram;
+  // the number of cells on the path from the start to the exit, or 0 if there is none
+  int solutionLength;
+
+  // measures the grid, whose longest path is only exact if it is a perfect maze
+  MazeAnalytics(MazeGrid grid, int start, int exit) {
+    int[] queue = new int[grid.size()];
+    this.distance = new int[grid.size()];
+    this.degreeHistogram = new int[5];
+    this.diameterStart = MazeAnalytics.farthest(grid, exit, this.distance, queue,
+        this.degreeHistogram);
+    // the farthest cell from any cell of a tree is one end of a longest path
+    int[] fromEnd = new int[grid.size()];
+    this.diameterEnd = MazeAnalytics.farthest(grid, this.diameterStart, fromEnd, queue, null);
+    this.diameter = fromEnd[this.diameterEnd];
+    this.solutionLength = this.distance[start] + 1;
+  }
+
+  // fills in the distance of every cell from the given one breadth first, counting the
+  // degree of each cell it reaches if given a histogram, and returns the farthest cell
+  static int farthest(MazeGrid grid, int from, int[] distance, int[] queue, int[] histogram) {
+    Arrays.fill(distance, -1);
+    int head = 0;
+    int tail = 0;
+    queue[tail++] = from;
+    distance[from] = 0;
+    int last = from;
+    while (head < tail) {
+      int next = queue[head++];
+      last = next;
+      int degree = 0;
+      for (int dir : MazeGrid.DIRECTIONS) {
+        if (grid.isOpen(next, dir)) {
+          degree++;
+          int n = grid.step(next, dir);
+          if (distance[n] < 0) {
+            distance[n] = distance[next] + 1;
+            queue[tail++] = n;
+          }
+        }
+      }
+      if (histogram != null) {
+        histogram[degree]++;
+      }
+    }
+    return last;
+  }
+
+  // the number of cells with only one passage
+  int deadEnds() {
+    return this.degreeHistogram[1];
+  }
+
+  // the number of cells where the maze branches
+  int junctions() {
+    return this.degreeHistogram[3] + this.degreeHistogram[4];
+  }
+
+  // how much of the longest path the solution is as long as, from 0 to 1
+  double solutionShare() {
+    return this.diameter == 0 ? 1 : Math.max(0, this.solutionLength - 1) / (double) this.diameter;
+  }
+
+  // these measurements as CSV columns matching CSV_HEADER
+  String toCsv() {
+    return this.diameter + "," + this.deadEnds() + "," + this.junctions() + ","
+        + this.solutionLength + "," + String.format(Locale.ROOT, "%.4f", this.solutionShare());
+  }
+
+  // these measurements as the fields of a JSON object, without the braces
+  String toJsonFields() {
+    return "\"diameter\":" + this.diameter + ",\"deadEnds\":" + this.deadEnds()
+        + ",\"junctions\":" + this.junctions() + ",\"solutionLength\":" + this.solutionLength
+        + ",\"solutionShare\":" + String.format(Locale.ROOT, "%.4f", this.solutionShare());
+  }
+}
+
+// to represent the outcome of generating and solving one maze in a batch
+class BatchResult {
+  static String CSV_HEADER = "seed,width,height,generateNanos,solveNanos,explored,pathLength";
+
+  long seed;
+  int width;
+  int height;
+  long generateNanos;
+  long solveNanos;
+  int explored;
+  int pathLength;
+  // the maze's analytics, or null if the batch didn't ask for them
+  MazeAnalytics analytics;
+
+  BatchResult(long seed, int width, int height, long generateNanos, long solveNanos,
+      int explored, int pathLength) {
+    this.seed = seed;
+    this.width = width;
+    this.height = height;
+    this.generateNanos = generateNanos;
+    this.solveNanos = solveNanos;
+    this.explored = explored;
+    this.pathLength = pathLength;
+  }
+
+  // the CSV header for results with or without analytics
+  static String header(boolean analytics) {
+    return analytics ? CSV_HEADER + "," + MazeAnalytics.CSV_HEADER : CSV_HEADER;
+  }
+
+  // this result as a CSV row matching its header
+  String toCsv() {
+    return this.seed + "," + this.width + "," + this.height + "," + this.generateNanos + ","
+        + this.solveNanos + "," + this.explored + "," + this.pathLength
+        + (this.analytics == null ? "" : "," + this.analytics.toCsv());
+  }
+
+  // this result as a single line JSON object
+  String toJson() {
+    return "{\"seed\":" + this.seed + ",\"width\":" + this.width + ",\"height\":"
+        + this.height + ",\"generateNanos\":" + this.generateNanos + ",\"solveNanos\":"
+        + this.solveNanos + ",\"explored\":" + this.explored + ",\"pathLength\":"
+        + this.pathLength
+        + (this.analytics == null ? "" : "," + this.analytics.toJsonFields()) + "}";
+  }
+}
+
+// to generate and solve many mazes in parallel without a display, writing one
+// line per maze as each one finishes
+class BatchRunner {
+  int width;
+  int height;
+  int count;
+  long firstSeed;
+  String generator;
+  String solver;
+  boolean json;
+  int threads;
+  boolean analytics;
+
+  BatchRunner(int width, int height, int count, long firstSeed, String generator,
+      String solver, boolean json, int threads, boolean analytics) {
+    if (count < 0 || threads <= 0) {
+      throw new IllegalArgumentException("Count must not be negative and threads must be positive");
+    }
+    // look the names up now so a typo fails before any work starts
+    Algorithms.generator(generator);
+    Algorithms.solver(solver);
+    new MazeGrid(width, height);
+    this.width = width;
+    this.height = height;
+    this.count = count;
+    this.firstSeed = firstSeed;
+    this.generator = generator;
+    this.solver = solver;
+    this.json = json;
+    this.threads = threads;
+    this.analytics = analytics;
+  }
+
+  // builds a runner from arguments of the form name=value
+  static BatchRunner fromArgs(String[] args) {
+    HashMap<String, String> options = new HashMap<String, String>();
+    options.put("width", "100");
+    options.put("height", "100");
+    options.put("count", "1000");
+    options.put("seed", "0");
+    options.put("generator", "kruskal");
+    options.put("solver", "bfs");
+    options.put("format", "csv");
+    options.put("threads", Integer.toString(Runtime.getRuntime().availableProcessors()));
+    options.put("analytics", "false");
+    for (String arg : args) {
+      int split = arg.indexOf('=');
+      if (split < 0 || !options.containsKey(arg.substring(0, split))) {
+        throw new IllegalArgumentException("Unknown argument " + arg);
+      }
+      options.put(arg.substring(0, split), arg.substring(split + 1));
+    }
+    String format = options.get("format");
+    if (!format.equals("csv") && !format.equals("json")) {
+      throw new IllegalArgumentException("Unknown format " + format + ", expected csv or json");
+    }
+    return new BatchRunner(Integer.parseInt(options.get("width")),
+        Integer.parseInt(options.get("height")), Integer.parseInt(options.get("count")),
+        Long.parseLong(options.get("seed")), options.get("generator"), options.get("solver"),
+        format.equals("json"), Integer.parseInt(options.get("threads")),
+        Boolean.parseBoolean(options.get("analytics")));
+  }
+
+  // generates and solves the maze for one seed
+  BatchResult runOne(long seed) {
+    long start = System.nanoTime();
+    MazeGrid grid = Algorithms.generator(this.generator).generate(this.width, this.height, seed);
+    long generated = System.nanoTime();
+    SearchResult result = Algorithms.solver(this.solver).solve(grid, 0, grid.size() - 1);
+    long solved = System.nanoTime();
+    BatchResult batched = new BatchResult(seed, this.width, this.height, generated - start,
+        solved - generated, result.order.length, result.path.length);
+    if (this.analytics) {
+      batched.analytics = new MazeAnalytics(grid, 0, grid.size() - 1);
+    }
+    return batched;
+  }
+
+  // runs every maze on a fixed pool of threads, writing each result as it completes
+  void run(PrintStream out) throws InterruptedException {
+    ExecutorService pool = Executors.newFixedThreadPool(this.threads);
+    try {
+      CompletionService<BatchResult> results = new ExecutorCompletionService<BatchResult>(pool);
+      for (int i = 0; i < this.count; i++) {
+        long seed = this.firstSeed + i;
+        results.submit(() -> this.runOne(seed));
+      }
+      if (!this.json) {
+        out.println(BatchResult.header(this.analytics));
+      }
+      for (int i = 0; i < this.count; i++) {
+        BatchResult result = results.take().get();
+        out.println(this.json ? result.toJson() : result.toCsv());
+      }
+      out.flush();
+    }
+    catch (ExecutionException e) {
+      throw new IllegalStateException("A maze in the batch failed", e.getCause());
+    }
+    finally {
+      pool.shutdownNow();
+    }
+  }
+
+  // runs a batch from the command line, for example
+  // java BatchRunner width=200 height=200 count=5000 seed=1 solver=astar format=json
+  // analytics=true
+  public static void main(String[] args) throws InterruptedException {
+    BatchRunner runner;
+    try {
+      runner = BatchRunner.fromArgs(args);
+    }
+    catch (IllegalArgumentException e) {
+      System.err.println(e.getMessage());
+      System.err.println("Usage: BatchRunner [width=N] [height=N] [count=N] [seed=N] "
+          + "[generator=" + Algorithms.GENERATORS + "] [solver=" + Algorithms.SOLVERS + "] "
+          + "[format=csv|json] [threads=N] [analytics=true|false]");
+      System.exit(1);
+      return;
+    }
+    runner.run(System.out);
+  }
+}
+
+// to represent the timing of one benchmarked operation at one maze size
+class BenchmarkResult {
+  String name;
+  int width;
+  int height;
+  double nanosPerOp;
+  // the bytes allocated per operation, or -1 if the JVM can't measure it
+  long bytesPerOp;
+
+  BenchmarkResult(String name, int width, int height, double nanosPerOp, long bytesPerOp) {
+    this.name = name;
+    this.width = width;
+    this.height = height;
+    this.nanosPerOp = nanosPerOp;
+    this.bytesPerOp = bytesPerOp;
+  }
+
+  // this result as a line of the benchmark report
+  public String toString() {
+    return String.format("%-16s %6dx%-6d %14.3f ms/op %16d B/op", this.name, this.width,
+        this.height, this.nanosPerOp / 1e6, this.bytesPerOp);
+  }
+}
+
+// to benchmark generation, search and rendering across maze sizes with fixed
+// seeds, reporting the time and the bytes allocated per operation
+class MazeBenchmark {
+  static String DEFAULT_SIZES = "10x6,100x60,1000x600,4096x4096";
+  // the benchmarks that build the Cell and Edge view, which takes around 64 bytes a cell
+  // for each copy, and the most cells they run at unless asked for by name; makeEdges at
+  // 4096x4096 needs -Xmx4g
+  static String OBJECT_VIEWS = "makeBoard, makeEdges, kruskal";
+  static long OBJECT_VIEW_CELLS = 2048 * 2048;
+
+  int warmup;
+  int iterations;
+  long seed;
+  // the operations to time, each run against a game set up beforehand
+  LinkedHashMap<String, Function<MazeGame, Object>> benchmarks;
+  // the result of the last operation, kept so the JIT can't drop the work; storing the
+  // reference costs the same whatever the result holds
+  Object sink;
+
+  MazeBenchmark(int warmup, int iterations, long seed) {
+    this.warmup = warmup;
+    this.iterations = iterations;
+    this.seed = seed;
+    this.benchmarks = new LinkedHashMap<String, Function<MazeGame, Object>>();
+    this.benchmarks.put("makeBoard", game -> game.makeBoard());
+    this.benchmarks.put("makeEdges", game -> game.makeEdges());
+    this.benchmarks.put("kruskal", game -> game.kruskal());
+    this.benchmarks.put("searchDfs",
+        game -> new DfsSolver().solve(game.grid, 0, game.grid.size() - 1));
+    this.benchmarks.put("searchBfs",
+        game -> new BfsSolver().solve(game.grid, 0, game.grid.size() - 1));
+    this.benchmarks.put("searchJunction",
+        game -> game.junctions().solve());
+    this.benchmarks.put("searchBitboard",
+        game -> new BitboardSolver().solve(game.grid, 0, game.grid.size() - 1));
+    this.benchmarks.put("makeScene", game -> {
+      game.renderer.invalidate();
+      return game.makeScene();
+    });
+    this.benchmarks.put("onTick", game -> {
+      if (game.stepper == null) {
+        game.onKeyEvent("b");
+      }
+      game.onTick();
+      return game.makeScene();
+    });
+  }
+
+  // times every benchmark that fits in memory at the given size
+  ArrayList<BenchmarkResult> run(int width, int height) {
+    ArrayList<BenchmarkResult> results = new ArrayList<BenchmarkResult>();
+    for (String name : this.namesFor(width, height)) {
+      results.add(this.run(name, width, height));
+    }
+    return results;
+  }
+
+  // the benchmarks that fit in memory at the given size, leaving out the ones that build
+  // the object view of more than OBJECT_VIEW_CELLS cells
+  ArrayList<String> namesFor(int width, int height) {
+    ArrayList<String> names = new ArrayList<String>();
+    for (String name : this.benchmarks.keySet()) {
+      if ((long) width * height <= OBJECT_VIEW_CELLS
+          || !Arrays.asList(OBJECT_VIEWS.split(", ")).contains(name)) {
+        names.add(name);
+      }
+    }
+    return names;
+  }
+
+  // times one benchmark at the given size, on a game made from the fixed seed
+  BenchmarkResult run(String name, int width, int height) {
+    Function<MazeGame, Object> benchmark = this.benchmarks.get(name);
+    if (benchmark == null) {
+      throw new IllegalArgumentException("Unknown benchmark " + name);
+    }
+    MazeGame game = new MazeGame(width, height, this.seed);
+    // without a key the game never reuses a cached search, so every restarted search in
+    // the onTick benchmark is stepped again rather than replayed
+    game.mazeKey = null;
+    for (int i = 0; i < this.warmup; i++) {
+      this.sink = benchmark.apply(game);
+    }
+    long bytes = MazeBenchmark.allocatedBytes();
+    long start = System.nanoTime();
+    for (int i = 0; i < this.iterations; i++) {
+      this.sink = benchmark.apply(game);
+    }
+    long nanos = System.nanoTime() - start;
+    long allocated = bytes < 0 ? -1 : (MazeBenchmark.allocatedBytes() - bytes) / this.iterations;
+    return new BenchmarkResult(name, width, height, (double) nanos / this.iterations, allocated);
+  }
+
+  // the bytes allocated so far by this thread, or -1 if the JVM can't tell
+  static long allocatedBytes() {
+    ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    if (threads instanceof com.sun.management.ThreadMXBean) {
+      return ((com.sun.management.ThreadMXBean) threads).getCurrentThreadAllocatedBytes();
+    }
+    return -1;
+  }
+
+  // runs the benchmarks from the command line, for example
+  // java MazeBenchmark 10x6,100x60 [warmup] [iterations] [benchmark...]
+  // where benchmarks named on the command line run at every size, however large
+  public static void main(String[] args) {
+    String sizes = args.length > 0 ? args[0] : DEFAULT_SIZES;
+    int warmup = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+    int iterations = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+    MazeBenchmark bench = new MazeBenchmark(warmup, iterations, 42);
+    for (String size : sizes.split(",")) {
+      String[] parts = size.split("x");
+      int width = Integer.parseInt(parts[0]);
+      int height = Integer.parseInt(parts[1]);
+      ArrayList<String> names = bench.namesFor(width, height);
+      if (args.length > 3) {
+        names = new ArrayList<String>(Arrays.asList(args).subList(3, args.length));
+      }
+      else if (names.size() < bench.benchmarks.size()) {
+        System.out.println("skipping " + OBJECT_VIEWS + " at " + size
+            + ", name them to run them with a larger -Xmx");
+      }
+      for (String name : names) {
+        System.out.println(bench.run(name, width, height));
+      }
+    }
+  }
+}
+
+// to represent how long one size of maze may take to generate and to solve, and
+// how much each of those may allocate, before the regression gate fails
+class GateBudget {
+  int width;
+  int height;
+  long generateNanos;
+  long solveNanos;
+  long allocatedBytes;
+
+  GateBudget(int width, int height, long generateNanos, long solveNanos, long allocatedBytes) {
+    this.width = width;
+    this.height = height;
+    this.generateNanos = generateNanos;
+    this.solveNanos = solveNanos;
+    this.allocatedBytes = allocatedBytes;
+  }
+
+  // the number of cells in a maze of this size
+  long cells() {
+    return (long) this.width * this.height;
+  }
+}
+
+// to check that the generators and solvers stay correct and within their budgets as
+// mazes grow, so a change that makes them quadratic fails the gate before it ships
+class RegressionGate {
+  // budgets about ten times what a laptop needs, so only a change in complexity fails them
+  static GateBudget[] DEFAULT_BUDGETS = {
+      new GateBudget(100, 100, 250_000_000L, 250_000_000L, 2L << 20),
+      new GateBudget(1000, 1000, 2_500_000_000L, 2_500_000_000L, 64L << 20),
+      new GateBudget(3162, 3162, 25_000_000_000L, 25_000_000_000L, 640L << 20) };
+
+  ArrayList<GateBudget> budgets;
+  ArrayList<String> generators;
+  ArrayList<String> solvers;
+  long seed;
+  // what went wrong in the last run, or nothing if it passed
+  ArrayList<String> failures;
+
+  RegressionGate(ArrayList<GateBudget> budgets, ArrayList<String> generators,
+      ArrayList<String> solvers, long seed) {
+    // look the names up now so a typo fails before any work starts
+    for (String generator : generators) {
+      Algorithms.generator(generator);
+    }
+    for (String solver : solvers) {
+      Algorithms.solver(solver);
+    }
+    this.budgets = budgets;
+    this.generators = generators;
+    this.solvers = solvers;
+    this.seed = seed;
+    this.failures = new ArrayList<String>();
+  }
+
+  // builds a gate from arguments of the form name=value, keeping the default budgets
+  // for mazes of at most max cells
+  static RegressionGate fromArgs(String[] args) {
+    HashMap<String, String> options = new HashMap<String, String>();
+    options.put("max", "10000000");
+    options.put("seed", "0");
+    options.put("generators", Algorithms.GENERATORS);
+    options.put("solvers", Algorithms.SOLVERS);
+    for (String arg : args) {
+      int split = arg.indexOf('=');
+      if (split < 0 || !options.containsKey(arg.substring(0, split))) {
+        throw new IllegalArgumentException("Unknown argument " + arg);
+      }
+      options.put(arg.substring(0, split), arg.substring(split + 1));
+    }
+    long max = Long.parseLong(options.get("max"));
+    ArrayList<GateBudget> budgets = new ArrayList<GateBudget>();
+    for (GateBudget budget : DEFAULT_BUDGETS) {
+      if (budget.cells() <= max) {
+        budgets.add(budget);
+      }
+    }
+    return new RegressionGate(budgets,
+        new ArrayList<String>(Arrays.asList(options.get("generators").split(",\\s*"))),
+        new ArrayList<String>(Arrays.asList(options.get("solvers").split(",\\s*"))),
+        Long.parseLong(options.get("seed")));
+  }
+
+  // generates and solves a maze at every budgeted size with every generator and solver,
+  // writing each measurement as it is taken, and returns whether everything passed
+  boolean run(PrintStream out) {
+    this.failures = new ArrayList<String>();
+    for (GateBudget budget : this.budgets) {
+      for (String generator : this.generators) {
+        String label = generator + " " + budget.width + "x" + budget.height;
+        long bytes = MazeBenchmark.allocatedBytes();
+        long start = System.nanoTime();
+        MazeGrid grid = Algorithms.generator(generator).generate(budget.width, budget.height,
+            this.seed);
+        this.measure(out, label + " generate", System.nanoTime() - start,
+            budget.generateNanos, bytes, budget);
+        this.fail(label, RegressionGate.checkTree(grid));
+
+        int goal = grid.size() - 1;
+        SearchResult reference = new BfsSolver().solve(grid, 0, goal);
+        for (String solver : this.solvers) {
+          bytes = MazeBenchmark.allocatedBytes();
+          start = System.nanoTime();
+          SearchResult result = Algorithms.solver(solver).solve(grid, 0, goal);
+          this.measure(out, label + " " + solver, System.nanoTime() - start, budget.solveNanos,
+              bytes, budget);
+          this.fail(label + " " + solver,
+              RegressionGate.checkSolution(grid, result, reference, 0, goal));
+        }
+      }
+    }
+    for (String failure : this.failures) {
+      out.println("FAILED " + failure);
+    }
+    out.flush();
+    return this.failures.isEmpty();
+  }
+
+  // writes one measurement and records a failure if it went over its budget; only the
+  // bytes allocated by this thread are counted, so work forked to other threads is free
+  void measure(PrintStream out, String label, long nanos, long budgetNanos, long bytesBefore,
+      GateBudget budget) {
+    long allocated = bytesBefore < 0 ? -1 : MazeBenchmark.allocatedBytes() - bytesBefore;
+    out.println(String.format("%-36s %10.1f ms %12d bytes", label, nanos / 1e6, allocated));
+    if (nanos > budgetNanos) {
+      this.failures.add(String.format("%s took %.1f ms, over its budget of %.1f ms", label,
+          nanos / 1e6, budgetNanos / 1e6));
+    }
+    if (allocated > budget.allocatedBytes) {
+      this.failures.add(label + " allocated " + allocated + " bytes, over its budget of "
+          + budget.allocatedBytes);
+    }
+  }
+
+  // records the problem found with the labelled maze or solution, if there was one
+  void fail(String label, String problem) {
+    if (problem != null) {
+      this.failures.add(label + ": " + problem);
+    }
+  }
+
+  // what is wrong with the grid as a spanning tree of its cells, or null if nothing is:
+  // it has no cycles, connects every cell, and so has one passage fewer than cells
+  static String checkTree(MazeGrid grid) {
+    UnionFind sets = new UnionFind(grid.size());
+    long passages = 0;
+    for (int i = 0; i < grid.size(); i++) {
+      int bits = grid.eastSouth(i);
+      if ((bits & MazeGrid.EAST) != 0) {
+        passages++;
+        if (!sets.union(i, i + 1)) {
+          return "the passage east of cell " + i + " closes a cycle";
+        }
+      }
+      if ((bits & MazeGrid.SOUTH) != 0) {
+        passages++;
+        if (!sets.union(i, i + grid.width)) {
+          return "the passage south of cell " + i + " closes a cycle";
+        }
+      }
+    }
+    if (sets.sets != 1) {
+      return "the cells form " + sets.sets + " disconnected parts";
+    }
+    if (passages != grid.size() - 1L) {
+      return passages + " passages for " + grid.size() + " cells";
+    }
+    return null;
+  }
+
+  // what is wrong with the solver's path compared to the reference, or null if nothing is:
+  // it must run through open passages from the start to the goal, and be as short
+  static String checkSolution(MazeGrid grid, SearchResult result, SearchResult reference,
+      int start, int goal) {
+    int[] path = result.path;
+    if (result.found() != reference.found()) {
+      return reference.found() ? "no path was found" : "a path was found where there is none";
+    }
+    if (!result.found()) {
+      return null;
+    }
+    if (path[0] != start || path[path.length - 1] != goal) {
+      return "the path runs from " + path[0] + " to " + path[path.length - 1];
+    }
+    for (int i = 1; i < path.length; i++) {
+      if (!grid.isConnected(path[i - 1], path[i])) {
+        return "the path steps through a wall from " + path[i - 1] + " to " + path[i];
+      }
+    }
+    if (path.length != reference.path.length) {
+      return "the path has " + path.length + " cells instead of " + reference.path.length;
+    }
+    return null;
+  }
+
+  // runs the gate from the command line, exiting with a failure status if anything was
+  // wrong or over budget, for example
+  // java -Xmx2g RegressionGate max=1000000 generators=kruskal,eller solvers=bfs,astar
+  public static void main(String[] args) {
+    RegressionGate gate;
+    try {
+      gate = RegressionGate.fromArgs(args);
+    }
+    catch (IllegalArgumentException e) {
+      System.err.println(e.getMessage());
+      System.err.println("Usage: RegressionGate [max=cells] [seed=N] [generators=a,b] "
+          + "[solvers=a,b]");
+      System.exit(2);
+      return;
+    }
+    if (!gate.run(System.out)) {
+      System.exit(1);
+    }
+  }
+}
+
+// to read and write mazes in a compact binary format: a header with the size,
+// seed, generator and tile size, followed by 2 bits per cell for its east and south walls
+class MazeFile {
+  static int MAGIC = 0x4D415A45;
+  static byte VERSION = 1;
+  static int HEADER_BYTES = 24;
+  static String[] GENERATORS = { "unknown", "kruskal", "eller", "tile" };
+
+  // the number of bytes a maze of the given size takes on disk
+  static long fileBytes(long cells) {
+    return HEADER_BYTES + (cells + 3) / 4;
+  }
+
+  // the id stored in the header for the given generator, leaving tile generators whose
+  // size doesn't fit in the header unknown
+  static byte generatorId(IMazeGenerator generator) {
+    if (generator instanceof KruskalGenerator) {
+      return 1;
+    }
+    else if (generator instanceof EllerGenerator) {
+      return 2;
+    }
+    else if (generator instanceof TileGenerator
+        && ((TileGenerator) generator).tileSize <= 0xFFFF) {
+      return 3;
+    }
+    else {
+      return 0;
+    }
+  }
+
+  // the tile size stored in the header for the given generator, or 0 if it has none
+  static int tileSize(IMazeGenerator generator) {
+    return MazeFile.generatorId(generator) == 3 ? ((TileGenerator) generator).tileSize : 0;
+  }
+
+  // the name of the generator stored in a header, where a tile size of 0 comes from files
+  // written before the size was stored, which only used the default size
+  static String generatorName(int id, int tileSize) {
+    if (id == 3 && tileSize != 0) {
+      return "tile" + (tileSize == 256 ? "" : String.valueOf(tileSize));
+    }
+    return GENERATORS[id >= 0 && id < GENERATORS.length ? id : 0];
+  }
+
+  // writes the header for a maze into the buffer
+  static void putHeader(ByteBuffer buffer, int width, int height, long seed,
+      IMazeGenerator generator) {
+    buffer.putInt(MAGIC);
+    buffer.put(VERSION);
+    buffer.put(MazeFile.generatorId(generator));
+    buffer.putShort((short) MazeFile.tileSize(generator));
+    buffer.putInt(width);
+    buffer.putInt(height);
+    buffer.putLong(seed);
+  }
+
+  // saves the grid to the file through a memory mapped buffer
+  static void save(MazeGrid grid, long seed, IMazeGenerator generator, Path path)
+      throws IOException {
+    if (grid instanceof MappedMazeGrid) {
+      // the file being written over may be the one the grid is read from
+      grid = grid.copy();
+    }
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+        StandardOpenOption.READ, StandardOpenOption.WRITE,
+        StandardOpenOption.TRUNCATE_EXISTING)) {
+      MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+          MazeFile.fileBytes(grid.size()));
+      MazeFile.putHeader(buffer, grid.width, grid.height, seed, generator);
+      MazeFile.putCells(buffer, grid);
+      buffer.force();
+    }
+  }
+
+  // packs the east and south bits of every cell into the buffer, four cells to a byte
+  static void putCells(ByteBuffer buffer, MazeGrid grid) {
+    for (int i = 0; i < grid.size(); i += 4) {
+      int packed = 0;
+      for (int j = 0; j < 4 && i + j < grid.size(); j++) {
+        packed |= grid.eastSouth(i + j) << (j * 2);
+      }
+      buffer.put((byte) packed);
+    }
+  }
+
+  // maps the maze in the file, reading its walls from the file as they are needed; the
+  // header is read and checked first, so only the cells of a valid maze are mapped
+  static MappedMazeGrid load(Path path) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+      while (header.hasRemaining() && channel.read(header, header.position()) > 0) {
+        continue;
+      }
+      header.flip();
+      if (header.remaining() < HEADER_BYTES || header.getInt() != MAGIC
+          || header.get() != VERSION) {
+        throw new IOException("Not a maze file: " + path);
+      }
+      int generator = header.get();
+      int tileSize = header.getShort() & 0xFFFF;
+      int width = header.getInt();
+      int height = header.getInt();
+      long seed = header.getLong();
+      if (width <= 0 || height <= 0
+          || channel.size() != MazeFile.fileBytes((long) width * height)) {
+        throw new IOException("Maze file has the wrong size: " + path);
+      }
+      if ((long) width * height > Integer.MAX_VALUE) {
+        throw new IOException("Maze file has too many cells to index: " + path);
+      }
+      // at most Integer.MAX_VALUE cells, four to a byte, which one mapping always holds
+      MappedByteBuffer cells = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES,
+          channel.size() - HEADER_BYTES);
+      return new MappedMazeGrid(width, height, seed,
+          MazeFile.generatorName(generator, tileSize), cells);
+    }
+  }
+}
+
+// to represent a maze read straight from a mapped maze file, so solvers can run
+// over it without copying it into memory first
+class MappedMazeGrid extends MazeGrid {
+  long seed;
+  String generator;
+  ByteBuffer cells;
+
+  MappedMazeGrid(int width, int height, long seed, String generator, ByteBuffer cells) {
+    super(width, height, false);
+    this.seed = seed;
+    this.generator = generator;
+    this.cells = cells;
+  }
+
+  // the east and south bits of the given cell, read from the file
+  int eastSouth(int idx) {
+    return (this.cells.get(idx >> 2) >> ((idx & 3) * 2)) & 3;
+  }
+
+  // is the wall of the given cell in the given direction open?
+  boolean isOpen(int idx, int dir) {
+    if (dir == EAST || dir == SOUTH) {
+      return (this.eastSouth(idx) & dir) != 0;
+    }
+    else if (dir == WEST) {
+      return idx % this.width > 0 && (this.eastSouth(idx - 1) & EAST) != 0;
+    }
+    else {
+      return idx >= this.width && (this.eastSouth(idx - this.width) & SOUTH) != 0;
+    }
+  }
+
+  // the number of open passages leaving the given cell
+  int degree(int idx) {
+    int degree = 0;
+    for (int dir : DIRECTIONS) {
+      if (this.isOpen(idx, dir)) {
+        degree++;
+      }
+    }
+    return degree;
+  }
+
+  // a mapped maze file is only ever read
+  void open(int idx, int dir) {
+    throw new UnsupportedOperationException("A mapped maze is read only");
+  }
+
+  // a mapped maze file is only ever read
+  void clear() {
+    throw new UnsupportedOperationException("A mapped maze is read only");
+  }
+}
+
+// to write a streamed maze straight to a maze file, one row at a time
+class MazeFileSink implements IRowSink, Closeable {
+  DataOutputStream out;
+  int packed;
+  int count;
+
+  MazeFileSink(Path path, int width, int height, long seed, IMazeGenerator generator)
+      throws IOException {
+    this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)));
+    ByteBuffer header = ByteBuffer.allocate(MazeFile.HEADER_BYTES);
+    MazeFile.putHeader(header, width, height, seed, generator);
+    this.out.write(header.array());
+  }
+
+  // packs the east and south bits of the row onto the end of the file
+  public void acceptRow(int y, byte[] row) {
+    try {
+      for (byte bits : row) {
+        this.packed |= (bits & (MazeGrid.EAST | MazeGrid.SOUTH)) << (this.count * 2);
+        this.count++;
+        if (this.count == 4) {
+          this.out.write(this.packed);
+          this.packed = 0;
+          this.count = 0;
+        }
+      }
+    }
+    catch (IOException e) {
+      throw new IllegalStateException("Could not write the maze file", e);
+    }
+  }
+
+  // writes the last partly filled byte and closes the file
+  public void close() throws IOException {
+    if (this.count > 0) {
+      this.out.write(this.packed);
+      this.count = 0;
+    }
+    this.out.close();
+  }
+}
+
+// to record the order a search visited cells in as a compact stream: a step to a
+// neighbor of the last cell takes a 2 bit direction code, and any other step takes an
+// escape code followed by a varint of how far it jumped. The escape is the code for
+// going straight back, which a search never does since it visits each cell once
+class SearchTrace {
+  static int MAGIC = 0x4D5A5452;
+  static byte VERSION = 1;
+  // the code that escapes a jump at the start and after a jump, when there is no
+  // direction to go back in
+  static int FIRST_ESCAPE = 2;
+  // the steps between checkpoints, which bounds how far a seek has to decode
+  static int CHECKPOINT = 4096;
+
+  int width;
+  int height;
+  int length;
+  // the last cell added, which the next step is from; the first step is from cell 0
+  int last;
+  int escape;
+  // four direction codes to a byte, one for every step
+  byte[] moves;
+  byte[] jumps;
+  int jumpBytes;
+  // the cell before, the jump offset at and the escape code at every CHECKPOINT-th step
+  int[] checkpointCell;
+  int[] checkpointJump;
+  byte[] checkpointEscape;
+
+  SearchTrace(int width, int height) {
+    MazeGrid.checkSize(width, height);
+    this.width = width;
+    this.height = height;
+    this.escape = FIRST_ESCAPE;
+    this.moves = new byte[16];
+    this.jumps = new byte[16];
+    this.checkpointCell = new int[4];
+    this.checkpointJump = new int[4];
+    this.checkpointEscape = new byte[4];
+  }
+
+  // a trace of the given visit order over the grid
+  static SearchTrace of(MazeGrid grid, int[] order) {
+    SearchTrace trace = new SearchTrace(grid.width, grid.height);
+    for (int cell : order) {
+      trace.add(cell);
+    }
+    trace.trim();
+    return trace;
+  }
+
+  // drops the room kept for steps that haven't been added yet
+  void trim() {
+    this.moves = Arrays.copyOf(this.moves, Math.max(1, (this.length + 3) / 4));
+    this.jumps = Arrays.copyOf(this.jumps, this.jumpBytes + 5);
+  }
+
+  // the number of cells in the trace
+  int size() {
+    return this.length;
+  }
+
+  // the code of the step between two cells, or -1 if they aren't neighbors
+  int codeOf(int from, int to) {
+    int diff = to - from;
+    if (diff == 1 && to % this.width != 0) {
+      return 0;
+    }
+    else if (diff == this.width) {
+      return 1;
+    }
+    else if (diff == -1 && from % this.width != 0) {
+      return 2;
+    }
+    else if (diff == -this.width) {
+      return 3;
+    }
+    else {
+      return -1;
+    }
+  }
+
+  // the cell one step from the given one in the direction of the code
+  int step(int from, int code) {
+    if (code == 0) {
+      return from + 1;
+    }
+    else if (code == 1) {
+      return from + this.width;
+    }
+    else if (code == 2) {
+      return from - 1;
+    }
+    else {
+      return from - this.width;
+    }
+  }
+
+  // adds the next visited cell to the end of the trace
+  void add(int cell) {
+    if (cell < 0 || cell >= this.width * this.height) {
+      throw new IllegalArgumentException("Cell " + cell + " is off the board");
+    }
+    if (this.length % CHECKPOINT == 0) {
+      this.checkpoint(this.length / CHECKPOINT, this.last, this.jumpBytes, this.escape);
+    }
+    if ((this.length >> 2) == this.moves.length) {
+      this.moves = Arrays.copyOf(this.moves, this.moves.length * 2);
+    }
+    int code = this.codeOf(this.last, cell);
+    if (code < 0 || code == this.escape) {
+      this.moves[this.length >> 2] |= (byte) (this.escape << ((this.length & 3) * 2));
+      int delta = cell - this.last;
+      this.writeVarint((delta << 1) ^ (delta >> 31));
+      this.escape = FIRST_ESCAPE;
+    }
+    else {
+      this.moves[this.length >> 2] |= (byte) (code << ((this.length & 3) * 2));
+      this.escape = code ^ 2;
+    }
+    this.last = cell;
+    this.length++;
+  }
+
+  // records where decoding stands before the i-th checkpoint's step, so a seek can
+  // start from there
+  void checkpoint(int i, int cell, int jump, int escape) {
+    if (i == this.checkpointCell.length) {
+      this.checkpointCell = Arrays.copyOf(this.checkpointCell, i * 2);
+      this.checkpointJump = Arrays.copyOf(this.checkpointJump, i * 2);
+      this.checkpointEscape = Arrays.copyOf(this.checkpointEscape, i * 2);
+    }
+    this.checkpointCell[i] = cell;
+    this.checkpointJump[i] = jump;
+    this.checkpointEscape[i] = (byte) escape;
+  }
+
+  // writes a value seven bits at a time, lowest first, with the high bit set on every
+  // byte but the last
+  void writeVarint(int value) {
+    while (true) {
+      if (this.jumpBytes + 5 > this.jumps.length) {
+        this.jumps = Arrays.copyOf(this.jumps, this.jumps.length * 2);
+      }
+      if ((value & ~0x7F) == 0) {
+        this.jumps[this.jumpBytes++] = (byte) value;
+        return;
+      }
+      this.jumps[this.jumpBytes++] = (byte) ((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+  }
+
+  // a cursor at the start of the trace
+  TraceCursor cursor() {
+    return new TraceCursor(this);
+  }
+
+  // the cell at the given step, decoding from the checkpoint before it
+  int get(int step) {
+    TraceCursor cursor = this.cursor();
+    cursor.seek(step);
+    return cursor.nextInt();
+  }
+
+  // every cell in the trace, in order
+  int[] toArray() {
+    int[] cells = new int[this.length];
+    TraceCursor cursor = this.cursor();
+    for (int i = 0; i < cells.length; i++) {
+      cells[i] = cursor.nextInt();
+    }
+    return cells;
+  }
+
+  // the approximate heap size of the trace's arrays
+  long bytes() {
+    return this.moves.length + this.jumps.length + 9L * this.checkpointCell.length;
+  }
+
+  // writes the size, the moves and the jumps; the checkpoints are rebuilt on reading
+  void write(DataOutputStream out) throws IOException {
+    out.writeInt(MAGIC);
+    out.writeByte(VERSION);
+    out.writeInt(this.width);
+    out.writeInt(this.height);
+    out.writeInt(this.length);
+    out.writeInt(this.jumpBytes);
+    out.write(this.moves, 0, (this.length + 3) / 4);
+    out.write(this.jumps, 0, this.jumpBytes);
+  }
+
+  // reads a trace written by write
+  static SearchTrace read(DataInputStream in) throws IOException {
+    if (in.readInt() != MAGIC || in.readByte() != VERSION) {
+      throw new IOException("Not a search trace");
+    }
+    SearchTrace trace = new SearchTrace(in.readInt(), in.readInt());
+    int length = in.readInt();
+    int jumpBytes = in.readInt();
+    if (length < 0 || jumpBytes < 0) {
+      throw new IOException("Search trace has a negative size");
+    }
+    trace.moves = new byte[Math.max(16, (length + 3) / 4)];
+    in.readFully(trace.moves, 0, (length + 3) / 4);
+    trace.jumps = new byte[Math.max(16, jumpBytes + 5)];
+    in.readFully(trace.jumps, 0, jumpBytes);
+    trace.length = length;
+    trace.jumpBytes = jumpBytes;
+    // decode it once to find the checkpoints, and where the next step would go from
+    TraceCursor cursor = trace.cursor();
+    try {
+      for (int i = 0; i < length; i++) {
+        if (i % CHECKPOINT == 0) {
+          trace.checkpoint(i / CHECKPOINT, cursor.cell, cursor.jump, cursor.escape);
+        }
+        cursor.nextInt();
+      }
+    }
+    catch (ArrayIndexOutOfBoundsException e) {
+      throw new IOException("Search trace is cut short", e);
+    }
+    if (cursor.jump != jumpBytes) {
+      throw new IOException("Search trace has jumps left over");
+    }
+    trace.last = cursor.cell;
+    trace.escape = cursor.escape;
+    return trace;
+  }
+
+  // saves the trace to the file
+  void save(Path path) throws IOException {
+    try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+        Files.newOutputStream(path)))) {
+      this.write(out);
+    }
+  }
+
+  // loads the trace saved in the file
+  static SearchTrace load(Path path) throws IOException {
+    try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+        Files.newInputStream(path)))) {
+      return SearchTrace.read(in);
+    }
+  }
+}
+
+// to decode a SearchTrace one cell at a time, from the start or from any step
+class TraceCursor implements PrimitiveIterator.OfInt {
+  SearchTrace trace;
+  // the next step to decode, and the state decoding stands in before it
+  int position;
+  int cell;
+  int jump;
+  int escape;
+
+  TraceCursor(SearchTrace trace) {
+    this.trace = trace;
+    this.position = 0;
+    this.cell = 0;
+    this.jump = 0;
+    this.escape = SearchTrace.FIRST_ESCAPE;
+  }
+
+  // moves the cursor so the next cell is the one at the given step, decoding forward
+  // from the last checkpoint before it
+  void seek(int step) {
+    if (step < 0 || step > this.trace.length) {
+      throw new IndexOutOfBoundsException("Step " + step + " is outside the trace");
+    }
+    // a checkpoint is only written once its step is added, so the end may not have one
+    int checkpoint = Math.max(0, Math.min(step, this.trace.length - 1)) / SearchTrace.CHECKPOINT;
+    if (checkpoint == 0) {
+      this.position = 0;
+      this.cell = 0;
+      this.jump = 0;
+      this.escape = SearchTrace.FIRST_ESCAPE;
+    }
+    else {
+      this.position = checkpoint * SearchTrace.CHECKPOINT;
+      this.cell = this.trace.checkpointCell[checkpoint];
+      this.jump = this.trace.checkpointJump[checkpoint];
+      this.escape = this.trace.checkpointEscape[checkpoint];
+    }
+    while (this.position < step) {
+      this.nextInt();
+    }
+  }
+
+  // are there cells left in the trace?
+  public boolean hasNext() {
+    return this.position < this.trace.length;
+  }
+
+  // the next cell in the trace
+  public int nextInt() {
+    if (this.position >= this.trace.length) {
+      throw new NoSuchElementException("The trace has no more cells");
+    }
+    int code = (this.trace.moves[this.position >> 2] >> ((this.position & 3) * 2)) & 3;
+    if (code == this.escape) {
+      int value = 0;
+      int shift = 0;
+      byte b;
+      do {
+        b = this.trace.jumps[this.jump++];
+        value |= (b & 0x7F) << shift;
+        shift += 7;
+      } while (b < 0);
+      this.cell += (value >>> 1) ^ -(value & 1);
+      this.escape = SearchTrace.FIRST_ESCAPE;
+    }
+    else {
+      this.cell = this.trace.step(this.cell, code);
+      this.escape = code ^ 2;
+    }
+    this.position++;
+    return this.cell;
+  }
+}
+
+// to record how long each phase of the game takes and how much work it does,
+// costing one flag check per phase while it is disabled
+class MazeMetrics {
+  static final int GENERATE = 0;
+  static final int MAKE_EDGES = 1;
+  static final int KRUSKAL = 2;
+  static final int CONNECT = 3;
+  static final int SEARCH = 4;
+  static final int RENDER = 5;
+  static final int TICK = 6;
+  static final String[] PHASES = { "generate", "makeEdges", "kruskal", "connectEdgesToCells",
+      "search", "makeScene", "onTick" };
+  // returned by start when disabled, so stop knows not to record anything
+  static final long DISABLED = Long.MIN_VALUE;
+
+  static volatile boolean enabled = Boolean.getBoolean("maze.metrics");
+  static final AtomicLongArray COUNTS = new AtomicLongArray(PHASES.length);
+  static final AtomicLongArray TOTAL_NANOS = new AtomicLongArray(PHASES.length);
+  static final AtomicLongArray MAX_NANOS = new AtomicLongArray(PHASES.length);
+  static final AtomicLong UNION_ATTEMPTS = new AtomicLong();
+  static final AtomicLong UNIONS = new AtomicLong();
+  static final AtomicLong SEARCHES = new AtomicLong();
+  static final AtomicLong EXPANDED = new AtomicLong();
+  static final AtomicLong LAST_EXPANDED = new AtomicLong();
+
+  // the time a phase starts at, or DISABLED
+  static long start() {
+    return enabled ? System.nanoTime() : DISABLED;
+  }
+
+  // records the phase that began at the given start time
+  static void stop(int phase, long start) {
+    if (start != DISABLED) {
+      MazeMetrics.record(phase, System.nanoTime() - start);
+    }
+  }
+
+  // records one run of the phase taking the given time
+  static void record(int phase, long nanos) {
+    COUNTS.incrementAndGet(phase);
+    TOTAL_NANOS.addAndGet(phase, nanos);
+    MAX_NANOS.accumulateAndGet(phase, nanos, Math::max);
+    MazePhaseEvent event = new MazePhaseEvent();
+    if (event.shouldCommit()) {
+      event.phase = PHASES[phase];
+      event.elapsed = nanos;
+      event.commit();
+    }
+  }
+
+  // records the union-find work of one maze generation
+  static void unionFind(long attempts, long unions) {
+    if (enabled) {
+      UNION_ATTEMPTS.addAndGet(attempts);
+      UNIONS.addAndGet(unions);
+    }
+  }
+
+  // records the cells one search expanded
+  static void searched(String solver, int expanded, int pathLength) {
+    if (enabled) {
+      SEARCHES.incrementAndGet();
+      EXPANDED.addAndGet(expanded);
+      LAST_EXPANDED.set(expanded);
+      MazeSearchEvent event = new MazeSearchEvent();
+      if (event.shouldCommit()) {
+        event.solver = solver;
+        event.expanded = expanded;
+        event.pathLength = pathLength;
+        event.commit();
+      }
+    }
+  }
+
+  // a copy of everything recorded so far
+  static MetricsSnapshot snapshot() {
+    MetricsSnapshot snapshot = new MetricsSnapshot();
+    for (int i = 0; i < PHASES.length; i++) {
+      snapshot.counts[i] = COUNTS.get(i);
+      snapshot.totalNanos[i] = TOTAL_NANOS.get(i);
+      snapshot.maxNanos[i] = MAX_NANOS.get(i);
+    }
+    snapshot.unionAttempts = UNION_ATTEMPTS.get();
+    snapshot.unions = UNIONS.get();
+    snapshot.searches = SEARCHES.get();
+    snapshot.expanded = EXPANDED.get();
+    snapshot.lastExpanded = LAST_EXPANDED.get();
+    return snapshot;
+  }
+
+  // forgets everything recorded so far
+  static void reset() {
+    for (int i = 0; i < PHASES.length; i++) {
+      COUNTS.set(i, 0);
+      TOTAL_NANOS.set(i, 0);
+      MAX_NANOS.set(i, 0);
+    }
+    UNION_ATTEMPTS.set(0);
+    UNIONS.set(0);
+    SEARCHES.set(0);
+    EXPANDED.set(0);
+    LAST_EXPANDED.set(0);
+  }
+}
+
+// to represent the metrics recorded up to one moment
+class MetricsSnapshot {
+  long[] counts = new long[MazeMetrics.PHASES.length];
+  long[] totalNanos = new long[MazeMetrics.PHASES.length];
+  long[] maxNanos = new long[MazeMetrics.PHASES.length];
+  long unionAttempts;
+  long unions;
+  long searches;
+  long expanded;
+  long lastExpanded;
+
+  // the average time of one run of the phase, or 0 if it never ran
+  double meanNanos(int phase) {
+    return this.counts[phase] == 0 ? 0 : (double) this.totalNanos[phase] / this.counts[phase];
+  }
+
+  // one line per phase, then the counters
+  public String toString() {
+    StringBuilder out = new StringBuilder();
+    for (int i = 0; i < MazeMetrics.PHASES.length; i++) {
+      out.append(String.format("%-20s %8d runs %12.3f ms mean %12.3f ms max%n",
+          MazeMetrics.PHASES[i], this.counts[i], this.meanNanos(i) / 1e6,
+          this.maxNanos[i] / 1e6));
+    }
+    out.append(String.format("union-find %d attempts %d unions%n", this.unionAttempts,
+        this.unions));
+    out.append(String.format("search %d runs %d expanded %d last%n", this.searches,
+        this.expanded, this.lastExpanded));
+    return out.toString();
+  }
+
+  // the mean times of the phases that run while playing, short enough for the game's
+  // status line
+  String summary() {
+    return String.format(Locale.ROOT, "search %.3f ms, makeScene %.3f ms, onTick %.3f ms mean",
+        this.meanNanos(MazeMetrics.SEARCH) / 1e6, this.meanNanos(MazeMetrics.RENDER) / 1e6,
+        this.meanNanos(MazeMetrics.TICK) / 1e6);
+  }
+}
+
+// to represent one run of a game phase in a flight recording
+@Name("maze.Phase")
+@Label("Maze Phase")
+@Category("Maze")
+class MazePhaseEvent extends Event {
+  @Label("Phase")
+  String phase;
+
+  @Label("Elapsed")
+  @Timespan(Timespan.NANOSECONDS)
+  long elapsed;
+}
+
+// to represent one search in a flight recording
+@Name("maze.Search")
+@Label("Maze Search")
+@Category("Maze")
+class MazeSearchEvent extends Event {
+  @Label("Solver")
+  String solver;
+
+  @Label("Cells Expanded")
+  int expanded;
+
+  @Label("Path Length")
+  int pathLength;
+}
+
+// to represent the outcome of replaying a recorded sequence of moves
+class ReplayResult {
+  // the index of the first move into a wall, or -1 if every move was legal
+  int failedAt;
+  // the cell the player ended up in
+  int finalCell;
+  // how many moves it took to first reach the goal, or -1 if it was never reached
+  int solvedAt;
+  // the number of different cells the player went through
+  int distinctCells;
+
+  ReplayResult(int failedAt, int finalCell, int solvedAt, int distinctCells) {
+    this.failedAt = failedAt;
+    this.finalCell = finalCell;
+    this.solvedAt = solvedAt;
+    this.distinctCells = distinctCells;
+  }
+
+  // was every move legal?
+  boolean isValid() {
+    return this.failedAt < 0;
+  }
+
+  // was every move legal, and did the player reach the goal?
+  boolean isSolved() {
+    return this.isValid() && this.solvedAt >= 0;
+  }
+}
+
+// to replay recorded player moves against a maze, checking each one against the
+// open-wall bits of the cell it leaves
+class MoveReplayer {
+
+  // the letter recorded for a move in the given direction
+  static char toChar(int dir) {
+    if (dir == MazeGrid.NORTH) {
+      return 'U';
+    }
+    else if (dir == MazeGrid.SOUTH) {
+      return 'D';
+    }
+    else if (dir == MazeGrid.WEST) {
+      return 'L';
+    }
+    else {
+      return 'R';
+    }
+  }
+
+  // the directions for a sequence of recorded move letters
+  static byte[] parse(CharSequence moves) {
+    byte[] dirs = new byte[moves.length()];
+    for (int i = 0; i < dirs.length; i++) {
+      char c = moves.charAt(i);
+      if (c == 'U') {
+        dirs[i] = MazeGrid.NORTH;
+      }
+      else if (c == 'D') {
+        dirs[i] = MazeGrid.SOUTH;
+      }
+      else if (c == 'L') {
+        dirs[i] = MazeGrid.WEST;
+      }
+      else if (c == 'R') {
+        dirs[i] = MazeGrid.EAST;
+      }
+      else {
+        throw new IllegalArgumentException("Unknown move " + c + " at " + i);
+      }
+    }
+    return dirs;
+  }
+
+  // replays the moves from the start, stopping at the first move into a wall
+  static ReplayResult replay(MazeGrid grid, int start, int goal, byte[] moves) {
+    BitSet trail = new BitSet(grid.size());
+    trail.set(start);
+    int distinct = 1;
+    int cell = start;
+    int solvedAt = start == goal ? 0 : -1;
+    for (int i = 0; i < moves.length; i++) {
+      int dir = moves[i];
+      if (Integer.bitCount(dir) != 1 || (dir & 0xF) == 0 || !grid.isOpen(cell, dir)) {
+        return new ReplayResult(i, cell, solvedAt, distinct);
+      }
+      cell = grid.step(cell, dir);
+      if (!trail.get(cell)) {
+        trail.set(cell);
+        distinct++;
+      }
+      if (cell == goal && solvedAt < 0) {
+        solvedAt = i + 1;
+      }
+    }
+    return new ReplayResult(-1, cell, solvedAt, distinct);
+  }
+}
+
+// to record the player's moves in two bits each, up to a fixed number of moves, so
+// however long a session runs its log stays small; moves past the limit are counted
+// but not kept, and read back as the letters MoveReplayer parses
+class MoveLog implements CharSequence {
+  // the most moves a game's log keeps, four to a byte
+  static int MAX_MOVES = 1 << 24;
+
+  int limit;
+  // the moves as the bit position of their direction, four to a byte
+  byte[] codes;
+  int length;
+  long dropped;
+
+  MoveLog() {
+    this(MAX_MOVES);
+  }
+
+  MoveLog(int limit) {
+    this.limit = limit;
+    this.codes = new byte[(int) Math.min(16, (limit + 3L) / 4)];
+  }
+
+  // records a move in the given direction, or counts it as dropped if the log is full
+  void add(int dir) {
+    if (this.length == this.limit) {
+      this.dropped++;
+      return;
+    }
+    if ((this.length >> 2) == this.codes.length) {
+      this.codes = Arrays.copyOf(this.codes,
+          (int) Math.min((long) this.codes.length * 2, (this.limit + 3L) / 4));
+    }
+    int code = Integer.numberOfTrailingZeros(dir);
+    this.codes[this.length >> 2] |= (byte) (code << ((this.length & 3) * 2));
+    this.length++;
+  }
+
+  // did the log keep every move?
+  boolean isComplete() {
+    return this.dropped == 0;
+  }
+
+  // the direction of the move at the given index
+  int direction(int i) {
+    if (i < 0 || i >= this.length) {
+      throw new IndexOutOfBoundsException("Move " + i + " is outside the log");
+    }
+    return 1 << ((this.codes[i >> 2] >> ((i & 3) * 2)) & 3);
+  }
+
+  // the number of moves kept
+  public int length() {
+    return this.length;
+  }
+
+  // the letter of the move at the given index
+  public char charAt(int i) {
+    return MoveReplayer.toChar(this.direction(i));
+  }
+
+  // the letters of the moves from start up to but not including end
+  public CharSequence subSequence(int start, int end) {
+    return this.toString().substring(start, end);
+  }
+
+  // the letters of every move kept
+  public String toString() {
+    StringBuilder letters = new StringBuilder(this.length);
+    for (int i = 0; i < this.length; i++) {
+      letters.append(this.charAt(i));
+    }
+    return letters.toString();
+  }
+
+  // the directions of every move kept, as MoveReplayer replays them
+  byte[] toMoves() {
+    byte[] moves = new byte[this.length];
+    for (int i = 0; i < moves.length; i++) {
+      moves[i] = (byte) this.direction(i);
+    }
+    return moves;
+  }
+}
+
+// to keep recent search results in primitive form, keyed by the maze and the
+// solver, evicting the least recently used ones to stay under a memory budget
+class SolutionCache {
+  long budget;
+  long bytes;
+  LinkedHashMap<String, SearchResult> entries;
+  long hits;
+  long misses;
+
+  SolutionCache(long budget) {
+    this.budget = budget;
+    this.entries = new LinkedHashMap<String, SearchResult>(16, 0.75f, true);
+  }
+
+  // the approximate heap size of a result
+  static long bytesOf(SearchResult result) {
+    return SolutionCache.bytesOf(result.order.length, result.path.length);
+  }
+
+  // the approximate heap size of a result with the given numbers of cells
+  static long bytesOf(int orderLength, int pathLength) {
+    return 64 + 4L * (orderLength + pathLength);
+  }
+
+  // could a result with the given numbers of cells be cached at all?
+  boolean fits(int orderLength, int pathLength) {
+    return SolutionCache.bytesOf(orderLength, pathLength) <= this.budget;
+  }
+
+  // the cached result for the key, or null
+  synchronized SearchResult get(String key) {
+    SearchResult result = this.entries.get(key);
+    if (result == null) {
+      this.misses++;
+    }
+    else {
+      this.hits++;
+    }
+    return result;
+  }
+
+  // caches the result, evicting the least recently used ones while over budget
+  synchronized void put(String key, SearchResult result) {
+    long size = SolutionCache.bytesOf(result);
+    SearchResult old = this.entries.remove(key);
+    if (old != null) {
+      this.bytes -= SolutionCache.bytesOf(old);
+    }
+    if (size > this.budget) {
+      return;
+    }
+    this.entries.put(key, result);
+    this.bytes += size;
+    Iterator<SearchResult> eldest = this.entries.values().iterator();
+    while (this.bytes > this.budget) {
+      this.bytes -= SolutionCache.bytesOf(eldest.next());
+      eldest.remove();
+    }
+  }
+
+  // forgets every cached result
+  synchronized void clear() {
+    this.entries.clear();
+    this.bytes = 0;
+  }
+}
+
+// to represent a maze that is ready to play, with the seed it was generated from
+class PreparedMaze {
+  long seed;
+  MazeGrid grid;
+
+  PreparedMaze(long seed, MazeGrid grid) {
+    this.seed = seed;
+    this.grid = grid;
+  }
+
+  // generates and prepares the maze for the seed
+  static PreparedMaze generate(IMazeGenerator generator, int width, int height, long seed) {
+    long start = MazeMetrics.start();
+    MazeGrid grid = generator.generate(width, height, seed);
+    MazeMetrics.stop(MazeMetrics.GENERATE, start);
+    return new PreparedMaze(seed, grid);
+  }
+}
+
+// to generate the next few mazes on a background thread, so a reset only has to
+// swap in one that is already prepared
+class MazePrefetcher {
+  // one daemon thread shared by every game, so prefetching never keeps the JVM alive
+  static ExecutorService WORKER = Executors.newSingleThreadExecutor(task -> {
+    Thread thread = new Thread(task, "maze-prefetch");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  IMazeGenerator generator;
+  int width;
+  int height;
+  Random seeds;
+  int depth;
+  ArrayDeque<Future<PreparedMaze>> queue;
+
+  MazePrefetcher(IMazeGenerator generator, int width, int height, Random seeds, int depth) {
+    this.generator = generator;
+    this.width = width;
+    this.height = height;
+    this.seeds = seeds;
+    this.depth = depth;
+    this.queue = new ArrayDeque<Future<PreparedMaze>>();
+  }
+
+  // queues mazes on the worker until the queue is full, drawing their seeds in order
+  void fill() {
+    while (this.queue.size() < this.depth) {
+      long seed = this.seeds.nextLong();
+      this.queue.add(MazePrefetcher.WORKER.submit(
+          () -> PreparedMaze.generate(this.generator, this.width, this.height, seed)));
+    }
+  }
+
+  // the next maze, waiting for the one in progress if it isn't ready yet and only
+  // generating one here if nothing was queued, then queues another
+  PreparedMaze next() {
+    Future<PreparedMaze> head = this.queue.poll();
+    PreparedMaze maze;
+    if (head == null) {
+      maze = PreparedMaze.generate(this.generator, this.width, this.height,
+          this.seeds.nextLong());
+    }
+    else {
+      maze = MazePrefetcher.await(head);
+    }
+    this.fill();
+    return maze;
+  }
+
+  // the result of the future, once it is done
+  static PreparedMaze await(Future<PreparedMaze> future) {
+    try {
+      return future.get();
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for the next maze", e);
+    }
+    catch (ExecutionException e) {
+      throw new IllegalStateException("Generating the next maze failed", e.getCause());
+    }
+  }
+
+  // drops every queued maze
+  void clear() {
+    for (Future<PreparedMaze> future : this.queue) {
+      future.cancel(false);
+    }
+    this.queue.clear();
+  }
+}
+
+// to represent a maze held by the pool, frozen so any number of requests can read
+// it at once
+class PooledMaze {
+  String key;
+  ImmutableMazeGrid grid;
+  long seed;
+  String generator;
+  PathIndex pathIndex;
+  // the pool holding this maze, or null, and the bytes it counts against the pool's
+  // budget for it, which only the pool's lock guards
+  MazePool pool;
+  long charged;
+
+  PooledMaze(String key, ImmutableMazeGrid grid, long seed, String generator) {
+    this.key = key;
+    this.grid = grid;
+    this.seed = seed;
+    this.generator = generator;
+  }
+
+  // the approximate heap size of the maze's grid
+  long bytes() {
+    return 64 + this.grid.size();
+  }
+
+  // the path index over this maze, built by the first request that needs it and
+  // counted against the budget of the pool holding the maze
+  synchronized PathIndex pathIndex() {
+    if (this.pathIndex == null) {
+      this.pathIndex = new PathIndex(this.grid);
+      if (this.pool != null) {
+        this.pool.charge(this, this.pathIndex.bytes());
+      }
+    }
+    return this.pathIndex;
+  }
+}
+
+// to share generated mazes between requests: requests for a maze that is still being
+// generated wait for that one generation instead of starting their own, and the most
+// recently used mazes are kept for the requests that come after them, up to a number
+// of mazes and a memory budget for their grids and path indexes
+class MazePool {
+  static long BUDGET = 256L << 20;
+
+  int capacity;
+  long budget;
+  long bytes;
+  // the mazes by key, in access order, each done or still being generated
+  LinkedHashMap<String, CompletableFuture<PooledMaze>> mazes;
+  long generated;
+  long shared;
+
+  MazePool(int capacity) {
+    this(capacity, MazePool.BUDGET);
+  }
+
+  MazePool(int capacity, long budget) {
+    this.capacity = capacity;
+    this.budget = budget;
+    this.mazes = new LinkedHashMap<String, CompletableFuture<PooledMaze>>(16, 0.75f, true);
+  }
+
+  // the maze for the generator, size and seed, generating it on this thread only if
+  // no other request already has
+  PooledMaze get(String generator, int width, int height, long seed) {
+    IMazeGenerator algorithm = Algorithms.generator(generator);
+    MazeGrid.checkSize(width, height);
+    String key = MazeGame.mazeKey(algorithm, seed, width, height);
+    CompletableFuture<PooledMaze> future;
+    boolean owner = false;
+    synchronized (this) {
+      future = this.mazes.get(key);
+      if (future == null) {
+        future = new CompletableFuture<PooledMaze>();
+        this.mazes.put(key, future);
+        this.generated++;
+        owner = true;
+        this.trim();
+      }
+      else {
+        this.shared++;
+      }
+    }
+    if (owner) {
+      try {
+        MazeGrid grid = algorithm.generate(width, height, seed);
+        PooledMaze maze = new PooledMaze(key, grid.freeze(), seed, generator);
+        maze.pool = this;
+        future.complete(maze);
+        this.charge(maze, maze.bytes());
+      }
+      catch (RuntimeException e) {
+        synchronized (this) {
+          this.mazes.remove(key, future);
+        }
+        future.completeExceptionally(e);
+        throw e;
+      }
+    }
+    try {
+      return future.join();
+    }
+    catch (CompletionException e) {
+      throw new IllegalStateException("Generating the maze failed", e.getCause());
+    }
+  }
+
+  // counts more bytes of the maze against the budget if the pool still holds it, then
+  // drops the least recently used mazes while over budget
+  synchronized void charge(PooledMaze maze, long bytes) {
+    CompletableFuture<PooledMaze> future = this.mazes.get(maze.key);
+    if (future != null && future.getNow(null) == maze) {
+      maze.charged += bytes;
+      this.bytes += bytes;
+      this.trim();
+    }
+  }
+
+  // drops the least recently used mazes while there are too many or they hold too much,
+  // where a maze still being generated holds nothing yet
+  synchronized void trim() {
+    Iterator<CompletableFuture<PooledMaze>> eldest = this.mazes.values().iterator();
+    while (this.mazes.size() > this.capacity || this.bytes > this.budget) {
+      PooledMaze maze = eldest.next().getNow(null);
+      if (maze != null) {
+        this.bytes -= maze.charged;
+      }
+      eldest.remove();
+    }
+  }
+
+  // the number of mazes held, including any still being generated
+  synchronized int size() {
+    return this.mazes.size();
+  }
+}
+
+// to serve generate, solve and path requests over HTTP on the loopback interface,
+// using the same generators, solvers and caches as the game, for example
+// GET /solve?generator=kruskal&width=20&height=12&seed=4&solver=astar
+class MazeService {
+  // the largest maze a request may ask for
+  static long MAX_CELLS = 1_000_000;
+
+  HttpServer server;
+  ExecutorService workers;
+  MazePool pool;
+
+  // binds the service to the port on localhost, or to any free port if it is 0, handling
+  // requests on a fixed number of threads
+  MazeService(int port, int threads, int poolSize) throws IOException {
+    this.pool = new MazePool(poolSize);
+    // responses are small, so waiting to fill a packet only adds the delayed ack to each
+    // one; the server reads this once, when the first one is made
+    System.setProperty("sun.net.httpserver.nodelay", "true");
+    this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port),
+        0);
+    this.workers = Executors.newFixedThreadPool(threads, task -> {
+      Thread thread = new Thread(task, "maze-service");
+      thread.setDaemon(true);
+      return thread;
+    });
+    this.server.setExecutor(this.workers);
+    this.server.createContext("/generate", exchange -> this.handle(exchange, this::generate));
+    this.server.createContext("/solve", exchange -> this.handle(exchange, this::solve));
+    this.server.createContext("/path", exchange -> this.handle(exchange, this::path));
+  }
+
+  // starts accepting requests
+  void start() {
+    this.server.start();
+  }
+
+  // stops accepting requests and lets the worker threads go
+  void stop() {
+    this.server.stop(0);
+    this.workers.shutdown();
+  }
+
+  // the port the service is listening on
+  int port() {
+    return this.server.getAddress().getPort();
+  }
+
+  // the maze a request names, from the pool
+  PooledMaze maze(HashMap<String, String> query) {
+    int width = Integer.parseInt(query.getOrDefault("width", "20"));
+    int height = Integer.parseInt(query.getOrDefault("height", "12"));
+    if ((long) width * height > MazeService.MAX_CELLS) {
+      throw new IllegalArgumentException("Mazes are limited to " + MazeService.MAX_CELLS
+          + " cells");
+    }
+    return this.pool.get(query.getOrDefault("generator", "kruskal"), width, height,
+        Long.parseLong(query.getOrDefault("seed", "0")));
+  }
+
+  // a cell index from the query, or the default if it isn't given
+  static int cell(HashMap<String, String> query, String name, int otherwise, MazeGrid grid) {
+    int idx = Integer.parseInt(query.getOrDefault(name, Integer.toString(otherwise)));
+    if (idx < 0 || idx >= grid.size()) {
+      throw new IllegalArgumentException("Cell " + name + " is off the board");
+    }
+    return idx;
+  }
+
+  // the maze's size, seed and walls, packed as in a maze file and base64 encoded
+  String generate(HashMap<String, String> query) {
+    PooledMaze maze = this.maze(query);
+    ByteBuffer cells = ByteBuffer.allocate((int) (MazeFile.fileBytes(maze.grid.size())
+        - MazeFile.HEADER_BYTES));
+    MazeFile.putCells(cells, maze.grid);
+    return "{\"generator\":\"" + maze.generator + "\",\"seed\":" + maze.seed + ",\"width\":"
+        + maze.grid.width + ",\"height\":" + maze.grid.height + ",\"passages\":"
+        + maze.grid.passageCount() + ",\"cells\":\""
+        + Base64.getEncoder().encodeToString(cells.array()) + "\"}";
+  }
+
+  // the search from the start to the goal, shared through the game's solution cache
+  // when it runs corner to corner like the game's searches do
+  String solve(HashMap<String, String> query) {
+    PooledMaze maze = this.maze(query);
+    String solver = query.getOrDefault("solver", "bfs");
+    ISolver algorithm = Algorithms.solver(solver);
+    int start = MazeService.cell(query, "start", 0, maze.grid);
+    int goal = MazeService.cell(query, "goal", maze.grid.size() - 1, maze.grid);
+    String key = start == 0 && goal == maze.grid.size() - 1 ? maze.key + ":" + solver : null;
+    SearchResult result = key == null ? null : MazeGame.SOLUTIONS.get(key);
+    boolean cached = result != null;
+    if (!cached) {
+      result = algorithm.solve(maze.grid, start, goal);
+      MazeMetrics.searched(solver, result.order.length, result.path.length);
+      if (key != null) {
+        MazeGame.SOLUTIONS.put(key, result);
+      }
+    }
+    return "{\"solver\":\"" + solver + "\",\"found\":" + result.found() + ",\"expanded\":"
+        + result.order.length + ",\"cached\":" + cached + ",\"path\":"
+        + MazeService.toJson(result.path) + "}";
+  }
+
+  // the path between two cells, from the maze's path index
+  String path(HashMap<String, String> query) {
+    PooledMaze maze = this.maze(query);
+    int from = MazeService.cell(query, "from", 0, maze.grid);
+    int to = MazeService.cell(query, "to", maze.grid.size() - 1, maze.grid);
+    PathIndex index = maze.pathIndex();
+    return "{\"distance\":" + index.distance(from, to) + ",\"path\":"
+        + MazeService.toJson(index.pathArray(from, to)) + "}";
+  }
+
+  // the cells as a JSON array
+  static String toJson(int[] cells) {
+    StringBuilder json = new StringBuilder(cells.length * 6 + 2).append('[');
+    for (int i = 0; i < cells.length; i++) {
+      if (i > 0) {
+        json.append(',');
+      }
+      json.append(cells[i]);
+    }
+    return json.append(']').toString();
+  }
+
+  // the parameters of a query string
+  static HashMap<String, String> query(String raw) {
+    HashMap<String, String> query = new HashMap<String, String>();
+    if (raw == null || raw.isEmpty()) {
+      return query;
+    }
+    for (String pair : raw.split("&")) {
+      int split = pair.indexOf('=');
+      if (split < 0) {
+        throw new IllegalArgumentException("Parameter " + pair + " has no value");
+      }
+      query.put(URLDecoder.decode(pair.substring(0, split), StandardCharsets.UTF_8),
+          URLDecoder.decode(pair.substring(split + 1), StandardCharsets.UTF_8));
+    }
+    return query;
+  }
+
+  // answers a request with the handler's JSON, or with an error if the request was bad
+  // or the handler failed
+  void handle(HttpExchange exchange, Function<HashMap<String, String>, String> handler)
+      throws IOException {
+    int status = 200;
+    String body;
+    try {
+      if (!exchange.getRequestMethod().equals("GET")) {
+        status = 405;
+        body = MazeService.error("Only GET is supported");
+      }
+      else if (!exchange.getRequestURI().getPath().equals(exchange.getHttpContext().getPath())) {
+        status = 404;
+        body = MazeService.error("No such endpoint " + exchange.getRequestURI().getPath());
+      }
+      else {
+        body = handler.apply(MazeService.query(exchange.getRequestURI().getRawQuery()));
+      }
+    }
+    catch (IllegalArgumentException e) {
+      status = 400;
+      body = MazeService.error(e.getMessage());
+    }
+    catch (RuntimeException e) {
+      status = 500;
+      body = MazeService.error(String.valueOf(e.getMessage()));
+    }
+    byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().set("Content-Type", "application/json");
+    exchange.sendResponseHeaders(status, bytes.length);
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(bytes);
+    }
+  }
+
+  // an error message as a JSON object
+  static String error(String message) {
+    return "{\"error\":\"" + message.replace("\\", "\\\\").replace("\"", "\\\"") + "\"}";
+  }
+
+  // runs the service from the command line until it is killed, for example
+  // java MazeService port=8080 threads=8 pool=1024
+  public static void main(String[] args) throws IOException {
+    HashMap<String, String> options = new HashMap<String, String>();
+    options.put("port", "8080");
+    options.put("threads", Integer.toString(Runtime.getRuntime().availableProcessors()));
+    options.put("pool", "1024");
+    for (String arg : args) {
+      int split = arg.indexOf('=');
+      if (split < 0 || !options.containsKey(arg.substring(0, split))) {
+        System.err.println("Unknown argument " + arg);
+        System.err.println("Usage: MazeService [port=N] [threads=N] [pool=N]");
+        System.exit(1);
+        return;
+      }
+      options.put(arg.substring(0, split), arg.substring(split + 1));
+    }
+    MazeService service = new MazeService(Integer.parseInt(options.get("port")),
+        Integer.parseInt(options.get("threads")), Integer.parseInt(options.get("pool")));
+    service.start();
+    System.out.println("Serving mazes on http://localhost:" + service.port());
+  }
+}
+
+// world class OwO
+class MazeGame extends World {
+  // the maze the game is played on, by grid index
+  MazeGrid grid;
+  int width;
+  int height;
+  // the cell and edge view of the grid, or null until something asks for it
+  ArrayList<ArrayList<Cell>> board;
+  ArrayList<Edge> edges;
+  // the order the last search visited cells in, drawn up to searchedCounter
+  SearchTrace searched;
+  // the cells the player has been to, in the order they first reached them
+  SearchTrace playerSearched;
+  int searchedCounter;
+  // the path to the exit as grid indices, from the exit back, or empty
+  int[] correctPath;
+  // the grid index of the player's cell
+  int current;
+  boolean solved;
+  long seed;
+  Random seeds;
+  IMazeGenerator generator;
+  // the way to the exit from every cell, still being found in the background for large
+  // mazes, and how far it was from the cell measuredAt, or -1 if it hasn't been measured
+  ExitRoute route;
+  Future<ExitRoute> routing;
+  int exitDistance;
+  int measuredAt;
+  // the junctions of this maze, built the first time the junction solver needs them
+  JunctionGraph junctions;
+  AMazeRenderer renderer;
+  SearchStepper stepper;
+  // the last search to finish, whose scratch arrays the next one reuses
+  SearchStepper lastStepper;
+  int stepsPerTick;
+  // the cells the player has been to, and the moves they made to get there
+  BitSet trail;
+  MoveLog moveLog;
+  // identifies the maze for the solution cache, or null if it can't be regenerated
+  String mazeKey;
+  MazePrefetcher prefetcher;
+  // the solvers in the last race, in the order they finished, and how far they are drawn
+  ArrayList<SolverStats> race;
+  int raceCounter;
+  // the race still running in the background, or null, and when it started
+  Future<ArrayList<SolverStats>> racing;
+  long raceStart;
+  // the part of the maze in view, which only the viewport renderer draws from
+  Camera camera;
+  // a line shown in place of the status until the next key, or null
+  String notice;
+
+  static int TOTAL_WIDTH = 1000;
+  static int TOTAL_HEIGHT = 600;
+  // boards with at least this many cells are painted into one image rather than placed
+  // one image per cell and passage, which costs a frame the whole board
+  static int SCENE_LIMIT = 1000;
+  // boards with at least this many cells are prefetched and routed in the background
+  static int BACKGROUND_THRESHOLD = 10000;
+  // the solvers raced by the 'v' key, one to each quarter of a cell
+  static String RACERS = "bfs, dfs, astar, bidirectional";
+  // search results shared by every game, keyed by maze and solver
+  static SolutionCache SOLUTIONS = new SolutionCache(64L << 20);
+
+  MazeGame(int width, int height) {
+    this(width, height, new Random().nextLong());
+  }
+
+  MazeGame(int width, int height, long seed) {
+    this(width, height, seed, new KruskalGenerator());
+  }
+
+  MazeGame(int width, int height, long seed, IMazeGenerator generator) {
+    this.width = width;
+    this.height = height;
+    this.seed = seed;
+    this.generator = generator;
+    this.renderer = MazeGame.rendererFor(width, height);
+    this.stepsPerTick = 1;
+    this.seeds = new Random(seed);
+    this.prefetcher = new MazePrefetcher(generator, width, height, this.seeds, 1);
+    this.resetMaze();
+    // small boards generate faster than a frame, so only start prefetching on large ones
+    if (width * height >= MazeGame.BACKGROUND_THRESHOLD) {
+      this.prefetcher.fill();
+    }
+  }
+
+  // the renderer for a maze of the given size: a viewport if the maze doesn't fit in the
+  // window, one image if it has too many cells to place one by one, and a scene otherwise
+  static AMazeRenderer rendererFor(int width, int height) {
+    if (Camera.isNeeded(width, height, MazeGame.TOTAL_WIDTH,
+        MazeGame.TOTAL_HEIGHT - Camera.MESSAGE_BAND)) {
+      return new ViewportRenderer();
+    }
+    else if (width * height >= MazeGame.SCENE_LIMIT) {
+      return new RasterRenderer();
+    }
+    else {
+      return new SceneRenderer();
+    }
+  }
+
+  // generates the maze for the current seed and resets the game state around it
+  void resetMaze() {
+    this.usePrepared(PreparedMaze.generate(this.generator, this.width, this.height, this.seed));
+  }
+
+  // plays the next maze from the prefetcher, with the seed it was generated from
+  void nextMaze() {
+    this.usePrepared(this.prefetcher.next());
+  }
+
+  // plays the prepared maze, keyed for the solution cache by its seed
+  void usePrepared(PreparedMaze maze) {
+    this.seed = maze.seed;
+    this.playMaze(maze);
+    this.mazeKey = MazeGame.mazeKey(this.generator, this.seed, this.width, this.height);
+  }
+
+  // the key for a generated maze, or null if the generator has no name
+  static String mazeKey(IMazeGenerator generator, long seed, int width, int height) {
+    String name = Algorithms.generatorName(generator);
+    if (name == null) {
+      return null;
+    }
+    return name + ":" + seed + ":" + width + "x" + height;
+  }
+
+  // the cache key for this maze solved by the named solver, or null if it can't be cached
+  String solutionKey(String solver) {
+    if (this.mazeKey == null || solver == null) {
+      return null;
+    }
+    return this.mazeKey + ":" + solver;
+  }
+
+  // saves the current maze to a maze file, leaving its generator unknown once the maze
+  // has no key, since the generator and seed would no longer make the same maze
+  void saveMaze(Path path) throws IOException {
+    MazeFile.save(this.grid, this.seed, this.mazeKey == null ? null : this.generator, path);
+  }
+
+  // replaces the current maze with the one in the maze file, playing it straight from
+  // the file and drawing it the way a maze of its size is drawn
+  void loadMaze(Path path) throws IOException {
+    MappedMazeGrid mapped = MazeFile.load(path);
+    this.seed = mapped.seed;
+    if (!mapped.generator.equals("unknown")) {
+      this.generator = Algorithms.generator(mapped.generator);
+    }
+    this.useGrid(mapped);
+    this.renderer = MazeGame.rendererFor(this.width, this.height);
+    // mazes queued for the old size or generator no longer fit
+    this.prefetcher.clear();
+    this.prefetcher = new MazePrefetcher(this.generator, this.width, this.height, this.seeds,
+        this.prefetcher.depth);
+    if (!mapped.generator.equals("unknown")) {
+      this.mazeKey = MazeGame.mazeKey(this.generator, this.seed, this.width, this.height);
+    }
+  }
+
+  // plays the given maze, resetting the game state around it
+  void useGrid(MazeGrid grid) {
+    this.playMaze(new PreparedMaze(this.seed, grid));
+  }
+
+  // plays the prepared maze, resetting the game state around it
+  void playMaze(PreparedMaze maze) {
+    this.stepper = null;
+    this.lastStepper = null;
+    this.stopRace();
+    this.forgetRoute();
+    this.mazeKey = null;
+    this.grid = maze.grid;
+    this.width = maze.grid.width;
+    this.height = maze.grid.height;
+    // a large maze takes seconds to route, so find it while the player starts moving
+    if (this.grid.size() >= MazeGame.BACKGROUND_THRESHOLD) {
+      this.routing = ExitRoute.find(this.grid, this.grid.size() - 1);
+    }
+    this.board = null;
+    this.edges = null;
+    this.searched = new SearchTrace(this.width, this.height);
+    this.searchedCounter = 0;
+    this.correctPath = new int[0];
+    this.current = 0;
+    this.solved = false;
+    this.playerSearched = new SearchTrace(this.width, this.height);
+    this.playerSearched.add(0);
+    this.trail = new BitSet(this.grid.size());
+    this.trail.set(0);
+    this.moveLog = new MoveLog();
+    this.notice = null;
+    if (this.camera == null || this.camera.mazeWidth != this.width
+        || this.camera.mazeHeight != this.height) {
+      this.camera = new Camera(this.width, this.height, MazeGame.TOTAL_WIDTH,
+          MazeGame.TOTAL_HEIGHT - Camera.MESSAGE_BAND);
+    }
+    else {
+      this.camera.scrollTo(0, 0);
+    }
+  }
+
+  // creates a board of cells
+  public ArrayList<ArrayList<Cell>> makeBoard() {
+    return new MazeGrid(this.width, this.height).makeBoard();
+  }
+
+  // the cell view of the maze, built and linked to its passages the first time it is
+  // needed rather than for every maze played
+  ArrayList<ArrayList<Cell>> board() {
+    if (this.board == null) {
+      this.board = this.grid.makeBoard();
+      this.edges = this.grid.makeEdges(this.board);
+      long start = MazeMetrics.start();
+      for (Edge e : this.edges) {
+        e.node1.edges.add(e);
+        e.node2.edges.add(e);
+      }
+      MazeMetrics.stop(MazeMetrics.CONNECT, start);
+    }
+    return this.board;
+  }
+
+  // make all possible edges with their seeded weights, sorted by weight
+  public ArrayList<Edge> makeEdges() {
+    ArrayList<ArrayList<Cell>> board = this.board();
+    long start = MazeMetrics.start();
+    int[] starts = new int[KruskalGenerator.MAX_WEIGHT + 1];
+    int[] order = new KruskalGenerator().sortEdges(this.width, this.height, this.seed, starts);
+    ArrayList<Edge> totalEdges = new ArrayList<Edge>(order.length);
+    for (int w = 0; w < KruskalGenerator.MAX_WEIGHT; w++) {
+      for (int i = starts[w]; i < starts[w + 1]; i++) {
+        int cell = order[i] >> 1;
+        int x = cell % this.width;
+        int y = cell / this.width;
+        if ((order[i] & 1) == 0) {
+          totalEdges.add(new Edge(board.get(x).get(y), board.get(x + 1).get(y), w));
+        }
+        else {
+          totalEdges.add(new Edge(board.get(x).get(y), board.get(x).get(y + 1), w));
+        }
+      }
+    }
+    MazeMetrics.stop(MazeMetrics.MAKE_EDGES, start);
+    return totalEdges;
+  }
+
+  // connect edges to cells, and open the matching passages in the grid
+  public void connectEdgesToCells() {
+    long start = MazeMetrics.start();
+    this.forgetRoute();
+    this.mazeKey = null;
+    // the grid changes in place, so the renderer can't tell by looking at it
+    this.renderer.invalidate();
+    this.grid.clear();
+    for (Edge e : this.edges) {
+      e.node1.edges.add(e);
+      e.node2.edges.add(e);
+      this.grid.connect(this.grid.index(e.node1.x, e.node1.y),
+          this.grid.index(e.node2.x, e.node2.y));
+    }
+    MazeMetrics.stop(MazeMetrics.CONNECT, start);
+  }
+
+  // the grid index of the given cell
+  int indexOf(Cell c) {
+    return this.grid.index(c.x, c.y);
+  }
+
+  // make a minimum spanning tree over the board using kruskal's algorithm
+  public ArrayList<Edge> kruskal() {
+    ArrayList<ArrayList<Cell>> board = this.board();
+    long start = MazeMetrics.start();
+    ArrayList<Edge> edges = new KruskalGenerator().generate(this.width, this.height, this.seed)
+        .makeEdges(board);
+    MazeMetrics.stop(MazeMetrics.KRUSKAL, start);
+    return edges;
+  }
+
+  // finds the cell in a hashmap that refers to itself, compressing the path to it
+  public Cell unionFind(HashMap<Cell, Cell> map, Cell key) {
+    Cell root = key;
+    while (!map.get(root).equals(root)) {
+      root = map.get(root);
+    }
+    while (!map.get(key).equals(root)) {
+      Cell next = map.get(key);
+      map.put(key, root);
+      key = next;
+    }
+    return root;
+  }
+
+  // search method using either DFS or BFS
+  void search(boolean isDfs) {
+    if (isDfs) {
+      this.search(new DfsSolver());
+    }
+    else {
+      this.search(new BfsSolver());
+    }
+  }
+
+  // search from the top left to the bottom right cell with the given solver, filling
+  // in the searched cells and the correct path from the goal back to the start
+  void search(ISolver solver) {
+    long start = MazeMetrics.start();
+    this.stepper = null;
+    String name = Algorithms.solverName(solver);
+    String key = this.solutionKey(name);
+    SearchResult result = key == null ? null : MazeGame.SOLUTIONS.get(key);
+    if (result == null) {
+      result = solver.solve(this.grid, 0, this.grid.size() - 1);
+      // named the way every other search is, so events for one solver group together
+      MazeMetrics.searched(name != null ? name : solver.getClass().getSimpleName(),
+          result.order.length, result.path.length);
+      if (key != null) {
+        MazeGame.SOLUTIONS.put(key, result);
+      }
+    }
+    this.showResult(result);
+    MazeMetrics.stop(MazeMetrics.SEARCH, start);
+  }
+
+  // fills in the searched cells and the correct path from the goal back to the start
+  void showResult(SearchResult result) {
+    this.stopRace();
+    this.searched = SearchTrace.of(this.grid, result.order);
+    this.correctPath = MazeGame.reversed(result.path);
+  }
+
+  // the path the other way round, so a path from the start leads back from the goal
+  static int[] reversed(int[] path) {
+    int[] back = new int[path.length];
+    for (int i = 0; i < path.length; i++) {
+      back[i] = path[path.length - 1 - i];
+    }
+    return back;
+  }
+
+  // starts a search that onTick advances a few cells at a time, or replays the cached
+  // result if this maze was already searched the same way
+  void startSearch(boolean isDfs) {
+    this.searchedCounter = 0;
+    this.stopRace();
+    SearchResult cached = null;
+    String key = this.solutionKey(isDfs ? "dfs" : "bfs");
+    if (key != null) {
+      cached = MazeGame.SOLUTIONS.get(key);
+    }
+    if (cached != null) {
+      this.stepper = null;
+      this.showResult(cached);
+    }
+    else {
+      this.stepper = new SearchStepper(this.grid, 0, this.grid.size() - 1, isDfs,
+          this.lastStepper);
+      this.lastStepper = null;
+      this.searched = new SearchTrace(this.width, this.height);
+      this.correctPath = new int[0];
+    }
+  }
+
+  // advances the running search by this game's budget, adding the path once it's done
+  void advanceSearch() {
+    this.stepper.step(this.stepsPerTick, idx -> this.searched.add(idx));
+    this.searchedCounter = this.searched.size();
+    if (this.stepper.isDone()) {
+      int[] path = this.stepper.path();
+      this.correctPath = MazeGame.reversed(path);
+      String name = this.stepper.depthFirst ? "dfs" : "bfs";
+      MazeMetrics.searched(name, this.stepper.visited, path.length);
+      String key = this.solutionKey(name);
+      // only unpack the trace when the result isn't too large to cache anyway
+      if (key != null && MazeGame.SOLUTIONS.fits(this.searched.size(), path.length)) {
+        MazeGame.SOLUTIONS.put(key, new SearchResult(this.searched.toArray(), path));
+      }
+      this.lastStepper = this.stepper;
+      this.stepper = null;
+      this.solved = true;
+    }
+  }
+
+  // saves the order the last search visited cells in
+  void saveTrace(Path path) throws IOException {
+    this.searched.save(path);
+  }
+
+  // replays a saved search of this maze from its first cell, showing the path to the
+  // exit once the replay reaches the end
+  void loadTrace(Path path) throws IOException {
+    SearchTrace trace = SearchTrace.load(path);
+    if (trace.width != this.width || trace.height != this.height) {
+      throw new IllegalArgumentException("The trace is for a " + trace.width + "x"
+          + trace.height + " maze");
+    }
+    this.stepper = null;
+    this.stopRace();
+    this.searched = trace;
+    this.searchedCounter = 0;
+    this.correctPath = this.route().path(0);
+  }
+
+  // moves the search animation to the given step, which the renderer can draw forward
+  // from or redraws up to if it is going back
+  void seekSearch(int step) {
+    this.searchedCounter = Math.max(0, Math.min(step, this.searched.size()));
+  }
+
+  // races every solver on this maze at once in the background; onTick picks up the
+  // results once they are all done, then draws their searches side by side
+  void race() {
+    this.stopRace();
+    this.raceStart = MazeMetrics.start();
+    this.stepper = null;
+    this.searched = new SearchTrace(this.width, this.height);
+    this.searchedCounter = 0;
+    this.correctPath = new int[0];
+    this.racing = SolverRace.start(this.grid, 0, this.grid.size() - 1,
+        new ArrayList<String>(Arrays.asList(MazeGame.RACERS.split(", "))));
+    this.notice = "Racing " + MazeGame.RACERS + "...";
+  }
+
+  // shows the finished race, caching what each solver found and how long they took
+  void finishRace(ArrayList<SolverStats> stats) {
+    this.racing = null;
+    this.race = stats;
+    this.raceCounter = 0;
+    for (SolverStats s : stats) {
+      String key = this.solutionKey(s.name);
+      if (key != null && !s.isCancelled()) {
+        MazeGame.SOLUTIONS.put(key, s.result);
+      }
+    }
+    this.notice = SolverRace.summary(stats);
+    MazeMetrics.stop(MazeMetrics.SEARCH, this.raceStart);
+  }
+
+  // waits for the race in the background, if there is one, and shows it
+  void awaitRace() {
+    if (this.racing != null) {
+      this.finishRace(SolverRace.await(this.racing));
+    }
+  }
+
+  // stops the race in the background, if there is one, and forgets the last race
+  void stopRace() {
+    if (this.racing != null) {
+      this.racing.cancel(true);
+      this.racing = null;
+    }
+    this.race = null;
+  }
+
+  // draws the race a little further, adding the winner's path once every search is drawn
+  void advanceRace() {
+    int longest = 0;
+    for (SolverStats stats : this.race) {
+      longest = Math.max(longest, stats.expanded());
+    }
+    this.raceCounter = (int) Math.min((long) this.raceCounter + this.stepsPerTick, longest);
+    if (this.raceCounter == longest && this.correctPath.length == 0) {
+      this.correctPath = MazeGame.reversed(this.race.get(0).result.path);
+      this.solved = true;
+    }
+  }
+
+  // the way to the exit from every cell, waiting for the one being found in the
+  // background or finding it here the first time it is needed
+  ExitRoute route() {
+    if (this.route == null && this.routing != null) {
+      this.route = ExitRoute.await(this.routing);
+      this.routing = null;
+    }
+    if (this.route == null) {
+      this.route = new ExitRoute(this.grid, this.grid.size() - 1);
+    }
+    return this.route;
+  }
+
+  // the junction graph from the start to the exit, built the first time it is needed
+  JunctionGraph junctions() {
+    if (this.junctions == null) {
+      this.junctions = new JunctionGraph(this.grid, 0, this.grid.size() - 1);
+    }
+    return this.junctions;
+  }
+
+  // stops finding the route to the exit and forgets the one found, along with the
+  // junctions searched for it
+  void forgetRoute() {
+    if (this.routing != null) {
+      this.routing.cancel(true);
+      this.routing = null;
+    }
+    this.route = null;
+    this.junctions = null;
+    this.exitDistance = -1;
+    this.measuredAt = 0;
+  }
+
+  // the number of steps from the player's cell to the exit, counted from the last cell
+  // it was measured at so a move doesn't walk the whole way again, or -1 while the
+  // route is still being found
+  int distanceToExit() {
+    if (this.routing != null && !this.routing.isDone()) {
+      return -1;
+    }
+    if (this.exitDistance < 0 || this.measuredAt != this.current) {
+      this.exitDistance = this.route().distance(this.measuredAt, this.current,
+          this.exitDistance);
+      this.measuredAt = this.current;
+    }
+    return this.exitDistance;
+  }
+
+  // shows the path from the player's cell to the exit as a hint
+  void hint() {
+    this.stepper = null;
+    this.stopRace();
+    this.searched = new SearchTrace(this.width, this.height);
+    this.searchedCounter = 0;
+    this.correctPath = this.route().path(this.current);
+  }
+
+  // reconstruct the right path
+  public ArrayList<Cell> reconstruct(HashMap<Cell, Cell> cameFromEdge, Cell c) {
+    ArrayList<Cell> pathSoFar = new ArrayList<Cell>();
+    while (this.indexOf(c) != 0) {
+      pathSoFar.add(c);
+      c = cameFromEdge.get(c);
+    }
+    return pathSoFar;
+  }
+
+  // updates the player's path
+  public void updatePlayerPath(Cell n) {
+    int dir = this.grid.direction(this.current, this.indexOf(n));
+    if (dir != 0) {
+      this.move(dir);
+    }
+    if (this.current == this.grid.size() - 1) {
+      this.solved = true;
+    }
+  }
+
+  // moves the player one cell in the given direction if the wall there is open
+  void move(int dir) {
+    int from = this.current;
+    if (!this.grid.isOpen(from, dir)) {
+      return;
+    }
+    int to = this.grid.step(from, dir);
+    this.current = to;
+    this.moveLog.add(dir);
+    // the trail only grows the first time the player reaches a cell
+    if (!this.trail.get(to)) {
+      this.trail.set(to);
+      this.playerSearched.add(to);
+    }
+    this.camera.follow(this.grid.xOf(to), this.grid.yOf(to));
+    if (to == this.grid.size() - 1) {
+      this.solved = true;
+    }
+  }
+
+  // display the current game message
+  public String gameMessage() {
+    if (this.solved) {
+      return "The maze has been solved :)";
+    }
+    else {
+      return "The maze has not been solved :(";
+    }
+  }
+
+  // the message shown under the maze: the notice if there is one, otherwise how far the
+  // player is from the exit until the maze is solved, once that is known
+  String statusMessage() {
+    if (this.notice != null) {
+      return this.notice;
+    }
+    int distance = this.solved ? -1 : this.distanceToExit();
+    if (distance < 0) {
+      return this.gameMessage();
+    }
+    return this.gameMessage() + " " + distance + " steps to the exit";
+  }
+
+  // make scene, updating the renderer's maze layer with only what changed since the
+  // last frame
+  public WorldScene makeScene() {
+    long start = MazeMetrics.start();
+    WorldScene ws = this.renderer.render(this);
+    MazeMetrics.stop(MazeMetrics.RENDER, start);
+    return ws;
+  }
+
+  // key event handler
+  public void onKeyEvent(String s) {
+    this.notice = null;
+    if (s.equals("d")) {
+      this.startSearch(true);
+    }
+    else if (s.equals("b")) {
+      this.startSearch(false);
+    }
+    else if (s.equals("a")) {
+      this.search(new AStarSolver());
+      this.searchedCounter = 0;
+    }
+    else if (s.equals("t")) {
+      this.search(new BidirectionalBfsSolver());
+      this.searchedCounter = 0;
+    }
+    else if (s.equals("j")) {
+      this.search(new JunctionSolver(this.junctions()));
+      this.searchedCounter = 0;
+    }
+    else if (s.equals("h")) {
+      this.hint();
+    }
+    else if (s.equals("v")) {
+      this.race();
+    }
+    else if (s.equals("z")) {
+      this.camera.zoom(1);
+    }
+    else if (s.equals("x")) {
+      this.camera.zoom(-1);
+    }
+    else if (s.equals("m")) {
+      this.notice = MazeMetrics.enabled ? MazeMetrics.snapshot().summary()
+          : "Run with -Dmaze.metrics=true to record metrics";
+    }
+    else if (s.equals("r")) {
+      this.nextMaze();
+    }
+    else if (!solved) {
+      if (s.equals("up")) {
+        this.move(MazeGrid.NORTH);
+      }
+      else if (s.equals("down")) {
+        this.move(MazeGrid.SOUTH);
+      }
+      else if (s.equals("left")) {
+        this.move(MazeGrid.WEST);
+      }
+      else if (s.equals("right")) {
+        this.move(MazeGrid.EAST);
+      }
+    }
+  }
+
+  // on tick handler
+  public void onTick() {
+    long start = MazeMetrics.start();
+    if (this.stepper != null) {
+      this.advanceSearch();
+      MazeMetrics.stop(MazeMetrics.TICK, start);
+      return;
+    }
+    if (this.racing != null) {
+      if (this.racing.isDone()) {
+        this.awaitRace();
+      }
+      MazeMetrics.stop(MazeMetrics.TICK, start);
+      return;
+    }
+    if (this.race != null) {
+      this.advanceRace();
+      MazeMetrics.stop(MazeMetrics.TICK, start);
+      return;
+    }
+    this.searchedCounter = (int) Math.min((long) this.searchedCounter + this.stepsPerTick,
+        this.searched.size());
+    if (this.searchedCounter == this.searched.size() && this.searchedCounter != 0) {
+      this.solved = true;
+    }
+    else if (this.correctPath.length == 0 && this.current == this.grid.size() - 1) {
+      // only look the path up once, rather than on every tick after the player wins
+      this.correctPath = this.route().path(0);
+      this.solved = true;
+    }
+    MazeMetrics.stop(MazeMetrics.TICK, start);
+  }
+}
+
+// examples class
+class ExamplesMaze {
+  MazeGame exampleWorld;
+  Cell cell1;
+  Cell cell2;
+  Cell exampleCell;
+  Cell exampleCell2;
+  Cell exampleCell3;
+  Cell exampleCell4;
+  Edge exampleEdge;
+  Edge exampleEdge2;
+  Edge exampleEdge3;
+  MazeGame owo;
+  MazeGame next;
+  HashMap<Cell, Cell> exampleCameFromEdge;
+
+  void initData() {
+    this.cell1 = new Cell(4, 5);
+    this.cell2 = new Cell(0, 3);
+    this.exampleCell = new Cell(0, 0);
+    this.exampleCell2 = new Cell(1, 0);
+    this.exampleCell3 = new Cell(0, 1);
+    this.exampleCell4 = new Cell(1, 1);
+    this.exampleEdge = new Edge(this.exampleCell, this.exampleCell2);
+    this.exampleEdge2 = new Edge(this.exampleCell2, this.exampleCell);
+    this.exampleEdge3 = new Edge(this.exampleCell2, this.exampleCell4);
+    this.exampleWorld = new MazeGame(2, 2);
+    this.exampleWorld.edges = new ArrayList<Edge>(
+        Arrays.asList(this.exampleEdge, this.exampleEdge3));
+    this.exampleWorld.board = new ArrayList<ArrayList<Cell>>(
+        Arrays.asList(new ArrayList<Cell>(Arrays.asList(this.exampleCell, this.exampleCell3)),
+            new ArrayList<Cell>(Arrays.asList(this.exampleCell2, this.exampleCell4))));
+    this.owo = new MazeGame(20, 12);
+    this.next = new MazeGame(30, 45);
+    this.exampleCameFromEdge = new HashMap<Cell, Cell>();
+    this.exampleCameFromEdge.put(this.exampleCell4, this.exampleCell2);
+    this.exampleCameFromEdge.put(this.exampleCell2, this.exampleCell);
+    this.exampleWorld.connectEdgesToCells();
+  }
+
+  // tests for makeBoard
+  boolean testMakeBoard(Tester t) {
+    initData();
+    return t.checkExpect(this.owo.makeBoard().size(), 20)
+        && t.checkExpect(this.next.makeBoard().size(), 30);
+  }
+
+  // tests for drawCell
+  void testDrawCell(Tester t) {
+    initData();
+    t.checkExpect(this.exampleCell.drawCell(10),
+        new RectangleImage(8, 8, OutlineMode.SOLID, Color.LIGHT_GRAY));
+    t.checkExpect(this.exampleCell.drawCell(5),
+        new RectangleImage(3, 3, OutlineMode.SOLID, Color.LIGHT_GRAY));
+    t.checkExpect(this.exampleCell.drawCell(5, Color.red),
+        new RectangleImage(3, 3, OutlineMode.SOLID, Color.red));
+  }
+
+  // tests for drawEdge
+  boolean testDrawEdge(Tester t) {
+    initData();
+    return t.checkExpect(this.exampleEdge.drawEdge(20),
+        new RectangleImage(18, 18, OutlineMode.SOLID, Color.LIGHT_GRAY))
+        && t.checkExpect(this.exampleEdge.drawEdge(10),
+            new RectangleImage(8, 8, OutlineMode.SOLID, Color.LIGHT_GRAY));
+  }
+
+  // tests for makeEdges
+  void testMakeEdges(Tester t) {
+    initData();
+    t.checkExpect(this.owo.makeEdges().size(), 448);
+    t.checkExpect(this.next.makeEdges().size(), 2625);
+    t.checkExpect(this.owo.makeEdges().get(0).weight < this.owo.makeEdges().get(447).weight, true);
+  }
+
+  // tests for compareTo
+  boolean testCompareTo(Tester t) {
+    initData();
+    exampleEdge.weight = 20;
+    exampleEdge2.weight = 40;
+    return t.checkExpect(exampleEdge.compareTo(exampleEdge2), -20)
+        && t.checkExpect(exampleEdge2.compareTo(exampleEdge), 20)
+        && t.checkExpect(exampleEdge.compareTo(exampleEdge), 0);
+  }
+
+  // test for containsNeighbor
+  void testContainsNeighbor(Tester t) {
+    initData();
+    t.checkExpect(this.exampleCell2.containsNeighbor(this.cell1), false);
+    t.checkExpect(this.exampleCell.containsNeighbor(this.cell2), false);
+    this.exampleCell.edges.add(new Edge(this.exampleCell, this.cell2));
+    this.exampleCell2.edges.add(new Edge(this.exampleCell2, this.cell1));
+    t.checkExpect(this.exampleCell2.containsNeighbor(this.cell1), true);
+    t.checkExpect(this.exampleCell.containsNeighbor(this.cell2), true);
+  }
+
+  // test for findNode
+  void testFindNode(Tester t) {
+    initData();
+    t.checkExpect(this.exampleEdge.findNode(this.exampleCell), this.exampleCell2);
+    t.checkExpect(this.exampleEdge.findNode(this.exampleCell2), this.exampleCell);
+  }
+
+  // tests for kruskal
+  boolean testKruskal(Tester t) {
+    initData();
+    return t.checkExpect(this.owo.kruskal().size(), 239)
+        && t.checkExpect(this.next.kruskal().size(), 1349);
+  }
+
+  // tests for seeded generation with the KruskalGenerator
+  void testKruskalGenerator(Tester t) {
+    MazeGrid first = new KruskalGenerator().generate(20, 12, 42);
+    MazeGrid second = new KruskalGenerator().generate(20, 12, 42);
+    MazeGrid other = new KruskalGenerator().generate(20, 12, 43);
+    t.checkExpect(Arrays.equals(first.walls, second.walls), true);
+    t.checkExpect(Arrays.equals(first.walls, other.walls), false);
+    t.checkExpect(first.passageCount(), 239L);
+    t.checkExpect(new KruskalGenerator().generate(1, 1, 42).passageCount(), 0L);
+    t.checkExpect(new KruskalGenerator().generate(5, 1, 42).passageCount(), 4L);
+
+    int[] starts = new int[KruskalGenerator.MAX_WEIGHT + 1];
+    int[] order = new KruskalGenerator().sortEdges(20, 12, 42, starts);
+    t.checkExpect(order.length, 448);
+    t.checkExpect(starts[KruskalGenerator.MAX_WEIGHT], 448);
+  }
+
+  // test that games with the same seed have the same maze
+  void testSeededGame(Tester t) {
+    MazeGame game = new MazeGame(20, 12, 7);
+    MazeGame same = new MazeGame(20, 12, 7);
+    t.checkExpect(Arrays.equals(game.grid.walls, same.grid.walls), true);
+    t.checkExpect(game.makeEdges().get(100).weight, same.makeEdges().get(100).weight);
+    game.onKeyEvent("r");
+    same.onKeyEvent("r");
+    t.checkExpect(game.seed, same.seed);
+    t.checkExpect(Arrays.equals(game.grid.walls, same.grid.walls), true);
+  }
+
+  // checks that the grid is a spanning tree: one passage fewer than cells, all connected
+  boolean isPerfectMaze(MazeGrid grid) {
+    UnionFind sets = new UnionFind(grid.size());
+    for (int i = 0; i < grid.size(); i++) {
+      if (grid.isOpen(i, MazeGrid.EAST)) {
+        sets.union(i, i + 1);
+      }
+      if (grid.isOpen(i, MazeGrid.SOUTH)) {
+        sets.union(i, i + grid.width);
+      }
+    }
+    return sets.sets == 1 && grid.passageCount() == grid.size() - 1;
+  }
+
+  // tests for the EllerGenerator
+  void testEllerGenerator(Tester t) {
+    t.checkExpect(this.isPerfectMaze(new EllerGenerator().generate(20, 12, 42)), true);
+    t.checkExpect(this.isPerfectMaze(new EllerGenerator().generate(1, 30, 42)), true);
+    t.checkExpect(this.isPerfectMaze(new EllerGenerator().generate(30, 1, 42)), true);
+    t.checkExpect(this.isPerfectMaze(new EllerGenerator().generate(97, 53, 9)), true);
+    t.checkExpect(this.isPerfectMaze(new KruskalGenerator().generate(97, 53, 9)), true);
+    t.checkExpect(Arrays.equals(new EllerGenerator().generate(20, 12, 42).walls,
+        new EllerGenerator().generate(20, 12, 42).walls), true);
+
+    ArrayList<Integer> rows = new ArrayList<Integer>();
+    new EllerGenerator().stream(4, 3, 42, (y, row) -> rows.add(y));
+    t.checkExpect(rows, new ArrayList<Integer>(Arrays.asList(0, 1, 2)));
+
+    MazeGame game = new MazeGame(20, 12, 42, new EllerGenerator());
+    t.checkExpect(game.grid.passageCount(), 239L);
+    game.search(false);
+    t.checkExpect(game.correctPath.length > 0, true);
+  }
+
+  // tests for the TileGenerator
+  void testTileGenerator(Tester t) {
+    ForkJoinPool pool = new ForkJoinPool(4);
+    t.checkExpect(this.isPerfectMaze(new TileGenerator(4, pool).generate(37, 23, 42)), true);
+    t.checkExpect(this.isPerfectMaze(new TileGenerator(8, pool).generate(16, 16, 3)), true);
+    t.checkExpect(this.isPerfectMaze(new TileGenerator(5, pool).generate(1, 23, 42)), true);
+    t.checkExpect(this.isPerfectMaze(new TileGenerator().generate(20, 12, 42)), true);
+    t.checkExpect(Arrays.equals(new TileGenerator(4, pool).generate(37, 23, 42).walls,
+        new TileGenerator(4, pool).generate(37, 23, 42).walls), true);
+    pool.shutdown();
+  }
+
+  // test for makeScene
+  void testMakeScene(Tester t) {
+    initData();
+    WorldScene ws = this.exampleWorld.getEmptyScene();
+    ws.placeImageXY(new RectangleImage(MazeGame.TOTAL_WIDTH, MazeGame.TOTAL_HEIGHT,
+        OutlineMode.SOLID, Color.DARK_GRAY), MazeGame.TOTAL_WIDTH / 2, MazeGame.TOTAL_HEIGHT / 2);
+    t.checkExpect(this.exampleWorld.makeScene(), ws);
+  }
+
+  // tests for the incremental SceneRenderer
+  void testSceneRenderer(Tester t) {
+    initData();
+    WorldScene first = this.owo.makeScene();
+    t.checkExpect(this.owo.renderer.cellSize, 50);
+    t.checkExpect(this.owo.renderer.drawnPlayer, 1);
+    t.checkExpect(this.owo.renderer.drawnCurrent, this.owo.current);
+    SceneRenderer renderer = (SceneRenderer) this.owo.renderer;
+    Color[] colors = renderer.colors;
+    t.checkExpect(colors.length, this.owo.grid.size());
+    t.checkExpect(colors[0], Color.BLUE);
+    t.checkExpect(colors[1], Color.LIGHT_GRAY);
+    int next = this.owo.grid.isOpen(0, MazeGrid.EAST) ? 1 : this.owo.width;
+    this.owo.onKeyEvent(next == 1 ? "right" : "down");
+    WorldScene moved = this.owo.makeScene();
+    t.checkExpect(moved == first, false);
+    t.checkExpect(renderer.message, this.owo.statusMessage());
+    t.checkExpect(colors[0], Color.CYAN);
+    t.checkExpect(colors[next], Color.BLUE);
+    // moving back and forth only changes the two cells' colors
+    for (int i = 0; i < 100; i++) {
+      this.owo.onKeyEvent(next == 1 ? "left" : "up");
+      this.owo.onKeyEvent(next == 1 ? "right" : "down");
+      this.owo.makeScene();
+    }
+    t.checkExpect(renderer.colors == colors, true);
+    t.checkExpect(colors[0], Color.CYAN);
+    t.checkExpect(colors[next], Color.BLUE);
+    this.owo.onKeyEvent("b");
+    this.owo.makeScene();
+    t.checkExpect(renderer.colors == colors, false);
+    colors = renderer.colors;
+    t.checkExpect(this.owo.renderer.drawnPath, 0);
+    this.owo.onTick();
+    this.owo.onTick();
+    this.owo.makeScene();
+    t.checkExpect(renderer.colors == colors, true);
+    t.checkExpect(this.owo.renderer.drawnSearched, 2);
+    while (this.owo.stepper != null) {
+      this.owo.onTick();
+    }
+    this.owo.makeScene();
+    t.checkExpect(renderer.colors == colors, true);
+    t.checkExpect(this.owo.renderer.drawnPath, this.owo.correctPath.length);
+    t.checkExpect(colors[this.owo.grid.size() - 1], Color.BLUE);
+    t.checkExpect(this.owo.renderer.message, "The maze has been solved :)");
+
+    // a race draws quarters, which a whole cell drawn later covers
+    this.owo.onKeyEvent("v");
+    this.owo.awaitRace();
+    this.owo.onTick();
+    this.owo.makeScene();
+    t.checkExpect(renderer.quarters[0], (byte) 15);
+    renderer.place(0, Color.CYAN);
+    t.checkExpect(renderer.quarters[0], (byte) 0);
+    this.owo.onKeyEvent("r");
+    this.owo.makeScene();
+    t.checkExpect(renderer.colors == colors, false);
+  }
+
+  // tests for the RasterRenderer
+  void testRasterRenderer(Tester t) {
+    initData();
+    RasterRenderer raster = new RasterRenderer();
+    this.exampleWorld.renderer = raster;
+    this.exampleWorld.current = this.exampleWorld.indexOf(this.exampleCell);
+    this.exampleWorld.makeScene();
+    t.checkExpect(raster.cellSize, 500);
+    // the wall between two cells is only open where there is a passage
+    t.checkExpect(raster.image.getPixel(500, 250), Color.LIGHT_GRAY);
+    t.checkExpect(raster.image.getPixel(250, 500), Color.DARK_GRAY);
+    t.checkExpect(raster.image.getPixel(250, 250), Color.BLUE);
+    this.exampleWorld.onKeyEvent("right");
+    this.exampleWorld.makeScene();
+    t.checkExpect(raster.image.getPixel(250, 250), Color.CYAN);
+    t.checkExpect(raster.image.getPixel(750, 250), Color.BLUE);
+    t.checkExpect(new MazeGame(100, 100, 1).renderer instanceof RasterRenderer, true);
+    t.checkExpect(new MazeGame(10, 6, 1).renderer instanceof SceneRenderer, true);
+    // a scene places the whole board every frame, so only small boards are drawn that way
+    t.checkExpect(MazeGame.rendererFor(40, 24) instanceof SceneRenderer, true);
+    t.checkExpect(MazeGame.rendererFor(40, 25) instanceof RasterRenderer, true);
+  }
+
+  // tests for the Camera
+  void testCamera(Tester t) {
+    t.checkExpect(Camera.isNeeded(100, 100, 1000, 560), false);
+    t.checkExpect(Camera.isNeeded(400, 100, 1000, 560), true);
+    Camera camera = new Camera(1000, 500, 400, 200);
+    t.checkExpect(camera.cellSize(), 4);
+    t.checkExpect(camera.columns(), 100);
+    t.checkExpect(camera.rows(), 50);
+    t.checkExpect(camera.isVisible(99, 49), true);
+    t.checkExpect(camera.isVisible(100, 0), false);
+    camera.follow(97, 10);
+    t.checkExpect(camera.left, 2);
+    t.checkExpect(camera.top, 0);
+    camera.scroll(2000, -5);
+    t.checkExpect(camera.left, 900);
+    t.checkExpect(camera.top, 0);
+    camera.zoom(1);
+    t.checkExpect(camera.cellSize(), 8);
+    t.checkExpect(camera.left, 925);
+    t.checkExpect(camera.top, 13);
+    camera.zoom(10);
+    t.checkExpect(camera.cellSize(), 32);
+    camera.follow(0, 0);
+    t.checkExpect(camera.left, 0);
+    t.checkExpect(camera.top, 0);
+  }
+
+  // tests for the ViewportRenderer
+  void testViewportRenderer(Tester t) {
+    MazeGame big = new MazeGame(1200, 800, 3);
+    t.checkExpect(big.renderer instanceof ViewportRenderer, true);
+    ViewportRenderer view = (ViewportRenderer) big.renderer;
+    big.makeScene();
+    t.checkExpect(view.cellSize, 4);
+    t.checkExpect(view.image.getWidth(), 1000.0);
+    t.checkExpect(view.image.getHeight(), 560.0);
+    t.checkExpect(view.image.getPixel(1, 1), Color.BLUE);
+    t.checkExpect(view.image.getPixel(5, 1), Color.LIGHT_GRAY);
+    t.checkExpect(view.image.getPixel(0, 0), Color.DARK_GRAY);
+    t.checkExpect(view.image.getPixel(3, 1),
+        big.grid.isOpen(0, MazeGrid.EAST) ? Color.LIGHT_GRAY : Color.DARK_GRAY);
+
+    // cells out of view are recorded but not painted until the camera reaches them
+    view.place(big.grid.index(600, 400), Color.RED);
+    t.checkExpect(view.state[big.grid.index(600, 400)] != 0, true);
+    big.camera.scrollTo(550, 350);
+    big.makeScene();
+    t.checkExpect(view.image.getPixel(201, 201), Color.RED);
+    big.onKeyEvent("z");
+    big.makeScene();
+    t.checkExpect(view.cellSize, 8);
+    t.checkExpect(view.image.getWidth(), 1000.0);
+    big.onKeyEvent("x");
+    t.checkExpect(big.camera.cellSize(), 4);
+  }
+
+  // tests for the shared CellImages
+  void testCellImages(Tester t) {
+    t.checkExpect(CellImages.get(10, Color.CYAN) == CellImages.get(10, Color.CYAN), true);
+    t.checkExpect(CellImages.get(10, Color.CYAN),
+        new RectangleImage(8, 8, OutlineMode.SOLID, Color.CYAN));
+    t.checkExpect(CellImages.get(12, Color.CYAN),
+        new RectangleImage(10, 10, OutlineMode.SOLID, Color.CYAN));
+  }
+
+  // test for unionFind
+  void testUnionFind(Tester t) {
+    initData();
+    HashMap<Cell, Cell> map = new HashMap<Cell, Cell>();
+    map.put(this.exampleWorld.board.get(0).get(0), this.exampleWorld.board.get(0).get(0));
+    map.put(this.exampleWorld.board.get(1).get(1), this.exampleWorld.board.get(0).get(0));
+    t.checkExpect(this.exampleWorld.unionFind(map, this.exampleWorld.board.get(0).get(0)),
+        this.exampleWorld.board.get(0).get(0));
+    t.checkExpect(this.exampleWorld.unionFind(map, this.exampleWorld.board.get(1).get(1)),
+        this.exampleWorld.board.get(0).get(0));
+  }
+
+  // tests for the array based UnionFind
+  void testUnionFindArrays(Tester t) {
+    UnionFind sets = new UnionFind(5);
+    t.checkExpect(sets.sets, 5);
+    t.checkExpect(sets.find(3), 3);
+    t.checkExpect(sets.union(0, 1), true);
+    t.checkExpect(sets.union(2, 3), true);
+    t.checkExpect(sets.union(1, 0), false);
+    t.checkExpect(sets.find(0) == sets.find(1), true);
+    t.checkExpect(sets.find(1) == sets.find(2), false);
+    t.checkExpect(sets.union(1, 3), true);
+    t.checkExpect(sets.find(0) == sets.find(2), true);
+    t.checkExpect(sets.sets, 2);
+    // every element in the joined set points straight at the root after a find
+    int root = sets.find(3);
+    t.checkExpect(sets.parent[3], root);
+  }
+
+  // test for connectEdgesToCell
+  void testConnectEdgesToCell(Tester t) {
+    initData();
+    this.exampleWorld.edges = new ArrayList<Edge>(Arrays.asList(
+        new Edge(this.exampleWorld.board.get(0).get(0), this.exampleWorld.board.get(1).get(0)),
+        new Edge(this.exampleWorld.board.get(0).get(0), this.exampleWorld.board.get(0).get(1))));
+    for (ArrayList<Cell> column : this.exampleWorld.board) {
+      for (Cell c : column) {
+        c.edges.clear();
+      }
+    }
+    this.exampleWorld.connectEdgesToCells();
+    t.checkExpect(this.exampleWorld.board.get(0).get(0).edges.size(), 2);
+    t.checkExpect(this.exampleWorld.board.get(1).get(0).edges.size(), 1);
+    t.checkExpect(this.exampleWorld.board.get(0).get(1).edges.size(), 1);
+  }
+
+  // test for search using dfs and bfs
+  void testSearch(Tester t) {
+    initData();
+    t.checkExpect(this.owo.searched.size(), 0);
+    t.checkExpect(this.owo.correctPath.length, 0);
+    this.owo.search(true);
+    t.checkExpect(this.owo.searched.size() > 0, true);
+    t.checkExpect(this.owo.correctPath.length > 0, true);
+    initData();
+    t.checkExpect(this.owo.searched.size(), 0);
+    this.owo.search(false);
+    t.checkExpect(this.owo.searched.size() > 0, true);
+    t.checkExpect(this.owo.correctPath.length > 0, true);
+  }
+
+  // checks that the path runs from start to goal through open walls only
+  boolean isValidPath(MazeGrid grid, int[] path, int start, int goal) {
+    if (path.length == 0 || path[0] != start || path[path.length - 1] != goal) {
+      return false;
+    }
+    for (int i = 1; i < path.length; i++) {
+      if (!grid.isConnected(path[i - 1], path[i])) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  // tests for the ISolver implementations
+  void testSolvers(Tester t) {
+    MazeGrid grid = new KruskalGenerator().generate(30, 20, 5);
+    int goal = grid.size() - 1;
+    SearchResult bfs = new BfsSolver().solve(grid, 0, goal);
+    SearchResult dfs = new DfsSolver().solve(grid, 0, goal);
+    SearchResult astar = new AStarSolver().solve(grid, 0, goal);
+    SearchResult both = new BidirectionalBfsSolver().solve(grid, 0, goal);
+    t.checkExpect(this.isValidPath(grid, bfs.path, 0, goal), true);
+    t.checkExpect(this.isValidPath(grid, dfs.path, 0, goal), true);
+    t.checkExpect(this.isValidPath(grid, astar.path, 0, goal), true);
+    t.checkExpect(this.isValidPath(grid, both.path, 0, goal), true);
+    // a perfect maze has exactly one path between two cells
+    t.checkExpect(dfs.path.length, bfs.path.length);
+    t.checkExpect(astar.path.length, bfs.path.length);
+    t.checkExpect(both.path.length, bfs.path.length);
+    t.checkExpect(bfs.order[0], 0);
+    t.checkExpect(bfs.order[bfs.order.length - 1], goal);
+    t.checkExpect(this.isValidPath(grid, new BidirectionalBfsSolver().solve(grid, 7, 7).path,
+        7, 7), true);
+    t.checkExpect(this.isValidPath(grid, new AStarSolver().solve(grid, goal, 3).path, goal, 3),
+        true);
+
+    MazeGrid walled = new MazeGrid(3, 1);
+    walled.connect(0, 1);
+    t.checkExpect(new BfsSolver().solve(walled, 0, 2).found(), false);
+    t.checkExpect(new DfsSolver().solve(walled, 0, 2).order.length, 2);
+    t.checkExpect(new AStarSolver().solve(walled, 0, 2).found(), false);
+    t.checkExpect(new BidirectionalBfsSolver().solve(walled, 0, 2).found(), false);
+  }
+
+  // tests for racing the solvers against each other
+  void testSolverRace(Tester t) {
+    MazeGrid grid = new KruskalGenerator().generate(120, 80, 8);
+    int goal = grid.size() - 1;
+    ArrayList<String> names = new ArrayList<String>(Arrays.asList("bfs", "dfs", "astar"));
+    ArrayList<SolverStats> all = SolverRace.run(grid, 0, goal, names, false);
+    t.checkExpect(all.size(), 3);
+    int bfsLength = new BfsSolver().solve(grid, 0, goal).path.length;
+    for (int i = 0; i < all.size(); i++) {
+      t.checkExpect(all.get(i).rank, i);
+      t.checkExpect(all.get(i).pathLength(), bfsLength);
+      t.checkExpect(this.isValidPath(grid, all.get(i).result.path, 0, goal), true);
+    }
+    t.checkExpect(SolverRace.contains(all, "astar"), true);
+    t.checkExpect(SolverRace.contains(all, "bidirectional"), false);
+
+    // the losers may or may not finish before they are cancelled, but all are reported
+    ArrayList<SolverStats> first = SolverRace.run(grid, 0, goal, names, true);
+    t.checkExpect(first.size(), 3);
+    t.checkExpect(first.get(0).rank, 0);
+    t.checkExpect(first.get(0).isCancelled(), false);
+    t.checkExpect(SolverRace.contains(first, "dfs"), true);
+    t.checkExpect(new SolverStats("dfs", 0, -1, null).toString(), "dfs: cancelled");
+
+    // an interrupted solver stops rather than searching the rest of the maze
+    Thread.currentThread().interrupt();
+    t.checkException(new CancellationException("Search was cancelled"), new BfsSolver(),
+        "solve", grid, 0, goal);
+    t.checkExpect(Thread.interrupted(), true);
+    t.checkException(new IllegalArgumentException("Unknown solver bogo, expected one of "
+        + Algorithms.SOLVERS), new SolverRace(), "run", grid, 0, goal,
+        new ArrayList<String>(Arrays.asList("bfs", "bogo")), false);
+  }
+
+  // tests for the corridor contracted JunctionGraph
+  void testJunctionGraph(Tester t) {
+    MazeGrid grid = new KruskalGenerator().generate(60, 40, 11);
+    int goal = grid.size() - 1;
+    JunctionGraph graph = new JunctionGraph(grid, 0, goal);
+    SearchResult bfs = new BfsSolver().solve(grid, 0, goal);
+    SearchResult junction = graph.solve();
+    t.checkExpect(Arrays.equals(junction.path, bfs.path), true);
+    t.checkExpect(junction.order.length < bfs.order.length, true);
+    t.checkExpect(graph.nodeCount() < grid.size(), true);
+    t.checkExpect(graph.nodeOf[0], 0);
+    t.checkExpect(graph.cells[graph.nodeOf[goal]], goal);
+    t.checkExpect(this.isValidPath(grid, new JunctionSolver().solve(grid, 17, 905).path, 17,
+        905), true);
+    t.checkExpect(new JunctionSolver().solve(grid, 42, 42).path.length, 1);
+
+    // a straight corridor contracts to one edge between its ends
+    MazeGrid corridor = new MazeGrid(5, 1);
+    for (int i = 0; i < 4; i++) {
+      corridor.connect(i, i + 1);
+    }
+    JunctionGraph line = new JunctionGraph(corridor, 0, 4);
+    t.checkExpect(line.nodeCount(), 2);
+    t.checkExpect(line.length[0], 4);
+    t.checkExpect(Arrays.equals(line.solve().path, new int[] { 0, 1, 2, 3, 4 }), true);
+    t.checkExpect(Arrays.equals(new JunctionGraph(corridor, 1, 3).solve().path,
+        new int[] { 1, 2, 3 }), true);
+
+    MazeGrid walled = new MazeGrid(3, 1);
+    walled.connect(0, 1);
+    t.checkExpect(new JunctionSolver().solve(walled, 0, 2).found(), false);
+
+    // a perfect maze is searched breadth first, and a maze with loops by corridor length
+    t.checkExpect(graph.forest, true);
+    MazeGrid open = new MazeGrid(3, 2);
+    for (int i = 0; i < 3; i++) {
+      open.connect(i, i + 3);
+    }
+    open.connect(0, 1);
+    open.connect(1, 2);
+    open.connect(3, 4);
+    open.connect(4, 5);
+    JunctionGraph loops = new JunctionGraph(open, 0, 5);
+    t.checkExpect(loops.forest, false);
+    t.checkExpect(this.isValidPath(open, loops.solve().path, 0, 5), true);
+    t.checkExpect(loops.solve().path.length, 4);
+    t.checkExpect(new JunctionGraph(corridor, 0, 4).forest, true);
+
+    // the solver keeps its graph for as long as it is asked about the same search
+    JunctionSolver solver = new JunctionSolver();
+    solver.solve(grid, 0, goal);
+    JunctionGraph kept = solver.graph;
+    t.checkExpect(Arrays.equals(solver.solve(grid, 0, goal).path, bfs.path), true);
+    t.checkExpect(solver.graph == kept, true);
+    solver.solve(grid, 17, 905);
+    t.checkExpect(solver.graph == kept, false);
+
+    // the game builds its graph once per maze
+    MazeGame game = new MazeGame(20, 12, 5);
+    game.onKeyEvent("j");
+    JunctionGraph built = game.junctions;
+    t.checkExpect(built != null, true);
+    t.checkExpect(this.isValidPath(game.grid, MazeGame.reversed(game.correctPath), 0,
+        game.grid.size() - 1), true);
+    t.checkExpect(game.junctions() == built, true);
+    game.onKeyEvent("r");
+    t.checkExpect(game.junctions, null);
+  }
+
+  // tests for the IntDeque
+  void testIntDeque(Tester t) {
+    IntDeque deque = new IntDeque(2);
+    deque.addLast(1);
+    deque.addLast(2);
+    t.checkExpect(deque.pollFirst(), 1);
+    deque.addLast(3);
+    deque.addLast(4);
+    t.checkExpect(deque.size, 3);
+    t.checkExpect(deque.pollLast(), 4);
+    t.checkExpect(deque.pollFirst(), 2);
+    t.checkExpect(deque.pollFirst(), 3);
+    t.checkException(new NoSuchElementException("The deque is empty"), deque, "pollFirst");
+  }
+
+  // tests for the SearchStepper
+  void testSearchStepper(Tester t) {
+    MazeGrid grid = new KruskalGenerator().generate(30, 20, 5);
+    int goal = grid.size() - 1;
+    SearchStepper bfs = new SearchStepper(grid, 0, goal, false);
+    ArrayList<Integer> order = new ArrayList<Integer>();
+    t.checkExpect(bfs.step(10, idx -> order.add(idx)), 10);
+    t.checkExpect(order.size(), 10);
+    t.checkExpect(order.get(0), 0);
+    t.checkExpect(bfs.isDone(), false);
+    while (!bfs.isDone()) {
+      bfs.step(7, idx -> order.add(idx));
+    }
+    SearchResult full = new BfsSolver().solve(grid, 0, goal);
+    t.checkExpect(order.size(), full.order.length);
+    t.checkExpect(Arrays.equals(bfs.path(), full.path), true);
+
+    SearchStepper dfs = new SearchStepper(grid, 0, goal, true);
+    int visited = 0;
+    while (!dfs.isDone()) {
+      visited += dfs.step(3, idx -> { });
+    }
+    t.checkExpect(visited, new DfsSolver().solve(grid, 0, goal).order.length);
+    t.checkExpect(Arrays.equals(dfs.path(), full.path), true);
+    // the directions take two bits a cell, and a later search reuses them
+    t.checkExpect(dfs.cameFrom.length, grid.size() / 4);
+    SearchStepper again = new SearchStepper(grid, goal, 0, false, dfs);
+    t.checkExpect(again.cameFrom == dfs.cameFrom, true);
+    t.checkExpect(again.seen.cardinality(), 1);
+    while (!again.isDone()) {
+      again.step(50, idx -> { });
+    }
+    t.checkExpect(Arrays.equals(again.path(), new BfsSolver().solve(grid, goal, 0).path), true);
+    SearchStepper other = new SearchStepper(new MazeGrid(3, 1), 0, 2, false, dfs);
+    t.checkExpect(other.cameFrom == dfs.cameFrom, false);
+
+    MazeGrid walled = new MazeGrid(3, 1);
+    SearchStepper none = new SearchStepper(walled, 0, 2, false);
+    none.step(100, idx -> { });
+    t.checkExpect(none.isDone(), true);
+    t.checkExpect(none.path().length, 0);
+  }
+
+  // test that onTick advances the running search by its budget
+  void testStepsPerTick(Tester t) {
+    initData();
+    this.owo.stepsPerTick = 5;
+    this.owo.onKeyEvent("b");
+    this.owo.onTick();
+    t.checkExpect(this.owo.searched.size(), 5);
+    t.checkExpect(this.owo.searchedCounter, 5);
+    t.checkExpect(this.owo.solved, false);
+    this.owo.stepsPerTick = Integer.MAX_VALUE;
+    this.owo.onTick();
+    t.checkExpect(this.owo.stepper, null);
+    t.checkExpect(this.owo.solved, true);
+    t.checkExpect(this.owo.correctPath[0], this.owo.grid.size() - 1);
+  }
+
+  // tests for the LongMinHeap
+  void testLongMinHeap(Tester t) {
+    LongMinHeap heap = new LongMinHeap(1);
+    heap.push(LongMinHeap.key(5, 1));
+    heap.push(LongMinHeap.key(2, 7));
+    heap.push(LongMinHeap.key(9, 3));
+    heap.push(LongMinHeap.key(2, 4));
+    t.checkExpect(heap.size, 4);
+    t.checkExpect(LongMinHeap.value(heap.pop()), 4);
+    t.checkExpect(LongMinHeap.value(heap.pop()), 7);
+    t.checkExpect(LongMinHeap.value(heap.pop()), 1);
+    t.checkExpect(LongMinHeap.value(heap.pop()), 3);
+    t.checkExpect(heap.size, 0);
+  }
+
+  // tests for the PathIndex
+  void testPathIndex(Tester t) {
+    MazeGrid grid = new KruskalGenerator().generate(25, 17, 11);
+    PathIndex index = new PathIndex(grid);
+    t.checkExpect(index.depth[0], 0);
+    t.checkExpect(index.lca(0, 200), 0);
+    t.checkExpect(index.lca(200, 200), 200);
+    boolean matches = true;
+    for (int a = 0; a < grid.size(); a += 37) {
+      for (int b = 0; b < grid.size(); b += 23) {
+        int[] path = index.pathArray(a, b);
+        matches = matches && this.isValidPath(grid, path, a, b)
+            && path.length == new BfsSolver().solve(grid, a, b).path.length
+            && index.distance(a, b) == index.distance(b, a);
+      }
+    }
+    t.checkExpect(matches, true);
+    t.checkExpect(index.ancestor(grid.size() - 1, index.depth[grid.size() - 1]), 0);
+    t.checkExpect(index.path(5, 5).nextInt(), 5);
+  }
+
+  // tests for the ExitRoute
+  void testExitRoute(Tester t) {
+    MazeGrid grid = new KruskalGenerator().generate(60, 40, 11);
+    int exit = grid.size() - 1;
+    ExitRoute route = new ExitRoute(grid, exit);
+    PathIndex index = new PathIndex(grid);
+    boolean matches = true;
+    for (int c = 0; c < grid.size(); c += 53) {
+      int[] path = route.path(c);
+      matches = matches && route.distance(c) == index.distance(c, exit)
+          && path.length == route.distance(c) + 1
+          && this.isValidPath(grid, path, exit, c);
+    }
+    t.checkExpect(matches, true);
+    t.checkExpect(route.distance(exit), 0);
+    t.checkExpect(route.path(exit).length, 1);
+    // a move follows or backs up the route, or walks it again if nothing is known
+    int from = 0;
+    int known = route.distance(0);
+    boolean tracked = true;
+    for (int i = 0; i < 500; i++) {
+      int dir = MazeGrid.DIRECTIONS[(i * 7) % 4];
+      if (grid.isOpen(from, dir)) {
+        int to = grid.step(from, dir);
+        known = route.distance(from, to, known);
+        tracked = tracked && known == route.distance(to);
+        from = to;
+      }
+    }
+    t.checkExpect(tracked, true);
+    t.checkExpect(route.distance(0, 0, -1), route.distance(0));
+
+    // cells walled off from the exit have no route
+    MazeGrid walled = new MazeGrid(3, 1);
+    walled.connect(1, 2);
+    ExitRoute stuck = new ExitRoute(walled, 2);
+    t.checkExpect(stuck.distance(0), -1);
+    t.checkExpect(stuck.path(0).length, 0);
+    t.checkExpect(ExitRoute.await(ExitRoute.find(grid, exit)).distance(0), route.distance(0));
+  }
+
+  // tests that the game plays from the grid, building the cell view only on request
+  void testGridGame(Tester t) {
+    MazeGame game = new MazeGame(20, 12, 4);
+    t.checkExpect(game.board, null);
+    t.checkExpect(game.edges, null);
+    t.checkExpect(game.routing, null);
+    game.makeScene();
+    t.checkExpect(game.board, null);
+    t.checkExpect(game.statusMessage(), "The maze has not been solved :( "
+        + game.route().distance(0) + " steps to the exit");
+    t.checkExpect(game.board().get(19).get(11).x, 19);
+    t.checkExpect(game.edges.size(), 239);
+    t.checkExpect(game.board() == game.board, true);
+
+    // a large maze is routed in the background, and the status waits for it
+    MazeGame large = new MazeGame(100, 100, 4);
+    t.checkExpect(large.routing != null, true);
+    t.checkExpect(large.route().distance(0), new BfsSolver().solve(large.grid, 0,
+        large.grid.size() - 1).path.length - 1);
+    t.checkExpect(large.routing, null);
+    t.checkExpect(large.statusMessage().endsWith(" steps to the exit"), true);
+    large.onKeyEvent("r");
+    t.checkExpect(large.route, null);
+    t.checkExpect(large.routing != null, true);
+    large.prefetcher.clear();
+  }
+
+  // test for hint
+  void testHint(Tester t) {
+    initData();
+    this.owo.hint();
+    t.checkExpect(this.owo.correctPath[0], this.owo.grid.size() - 1);
+    t.checkExpect(this.owo.correctPath[this.owo.correctPath.length - 1],
+        this.owo.current);
+    this.owo.search(false);
+    t.checkExpect(this.owo.correctPath.length,
+        new PathIndex(this.owo.grid).distance(0, this.owo.grid.size() - 1) + 1);
+  }
+
+  // tests for the race between every solver in the game
+  void testRace(Tester t) {
+    initData();
+    this.owo.onKeyEvent("v");
+    t.checkExpect(this.owo.racing != null, true);
+    t.checkExpect(this.owo.statusMessage(), "Racing bfs, dfs, astar, bidirectional...");
+    this.owo.awaitRace();
+    t.checkExpect(this.owo.racing, null);
+    t.checkExpect(this.owo.race.size(), 4);
+    t.checkExpect(this.owo.statusMessage(), SolverRace.summary(this.owo.race));
+    t.checkExpect(this.owo.statusMessage().contains("astar "), true);
+    t.checkExpect(this.owo.correctPath.length, 0);
+    this.owo.makeScene();
+    this.owo.onTick();
+    this.owo.onTick();
+    this.owo.makeScene();
+    t.checkExpect(this.owo.raceCounter, 2);
+    t.checkExpect(this.owo.renderer.drawnRace, 2);
+    while (this.owo.correctPath.length == 0) {
+      this.owo.onTick();
+    }
+    t.checkExpect(this.owo.solved, true);
+    t.checkExpect(this.owo.correctPath.length,
+        new PathIndex(this.owo.grid).distance(0, this.owo.grid.size() - 1) + 1);
+    t.checkExpect(MazeGame.SOLUTIONS.get(this.owo.solutionKey("astar")) != null, true);
+    this.owo.hint();
+    t.checkExpect(this.owo.race, null);
+
+    // a new maze stops a race that is still running
+    this.owo.onKeyEvent("v");
+    Future<ArrayList<SolverStats>> running = this.owo.racing;
+    this.owo.onKeyEvent("r");
+    t.checkExpect(this.owo.racing, null);
+    t.checkExpect(running.isDone(), true);
+    t.checkExpect(this.owo.race, null);
+  }
+
+  // test for reconstruct
+  void testReconstruct(Tester t) {
+    initData();
+    this.exampleWorld.reconstruct(this.exampleCameFromEdge, this.exampleCell);
+    // the correct path for this example world is size 2
+    t.checkExpect(this.exampleWorld.reconstruct(this.exampleCameFromEdge, this.exampleCell4).size(),
+        2);
+  }
+
+  // test for updatePlayerPath
+  void testUpdatePlayerPath(Tester t) {
+    initData();
+    this.exampleWorld.current = this.exampleWorld.indexOf(this.exampleCell);
+    t.checkExpect(this.exampleWorld.playerSearched.size(), 1);
+    this.exampleWorld.updatePlayerPath(exampleCell2);
+    t.checkExpect(this.exampleWorld.playerSearched.size(), 2);
+    t.checkExpect(this.exampleWorld.solved, false);
+    initData();
+    this.exampleWorld.current = this.exampleWorld.indexOf(this.exampleCell2);
+    this.exampleWorld.updatePlayerPath(this.exampleCell4);
+    t.checkExpect(this.exampleWorld.solved, true);
+  }
+
+  // tests for player moves and the deduplicated trail
+  void testMove(Tester t) {
+    initData();
+    this.exampleWorld.current = this.exampleWorld.indexOf(this.exampleCell);
+    this.exampleWorld.move(MazeGrid.SOUTH);
+    t.checkExpect(this.exampleWorld.current, this.exampleWorld.indexOf(this.exampleCell));
+    this.exampleWorld.move(MazeGrid.EAST);
+    this.exampleWorld.move(MazeGrid.WEST);
+    this.exampleWorld.move(MazeGrid.EAST);
+    t.checkExpect(this.exampleWorld.current, this.exampleWorld.indexOf(this.exampleCell2));
+    t.checkExpect(this.exampleWorld.playerSearched.size(), 2);
+    t.checkExpect(this.exampleWorld.moveLog.toString(), "RLR");
+    t.checkExpect(this.exampleWorld.solved, false);
+    this.exampleWorld.move(MazeGrid.SOUTH);
+    t.checkExpect(this.exampleWorld.solved, true);
+    t.checkExpect(this.exampleWorld.trail.cardinality(), 3);
+  }
+
+  // tests for the MoveReplayer
+  void testMoveReplayer(Tester t) {
+    initData();
+    MazeGrid grid = this.exampleWorld.grid;
+    ReplayResult solved = MoveReplayer.replay(grid, 0, 3, MoveReplayer.parse("RLRD"));
+    t.checkExpect(solved.isSolved(), true);
+    t.checkExpect(solved.solvedAt, 4);
+    t.checkExpect(solved.distinctCells, 3);
+    ReplayResult wall = MoveReplayer.replay(grid, 0, 3, MoveReplayer.parse("RLD"));
+    t.checkExpect(wall.isValid(), false);
+    t.checkExpect(wall.failedAt, 2);
+    t.checkExpect(wall.finalCell, 0);
+    t.checkExpect(MoveReplayer.replay(grid, 0, 3, new byte[] { 3 }).isValid(), false);
+    t.checkExpect(MoveReplayer.replay(grid, 0, 3, new byte[0]).isSolved(), false);
+    t.checkException(new IllegalArgumentException("Unknown move x at 1"), new MoveReplayer(),
+        "parse", "Ux");
+
+    // replaying what the player typed gives the same place
+    MazeGame game = new MazeGame(20, 12, 8);
+    String[] keys = { "right", "down", "left", "up", "down", "right", "right", "down" };
+    for (String key : keys) {
+      game.onKeyEvent(key);
+    }
+    ReplayResult replayed = MoveReplayer.replay(game.grid, 0, game.grid.size() - 1,
+        game.moveLog.toMoves());
+    t.checkExpect(Arrays.equals(MoveReplayer.parse(game.moveLog), game.moveLog.toMoves()),
+        true);
+    t.checkExpect(replayed.isValid(), true);
+    t.checkExpect(replayed.finalCell, game.current);
+    t.checkExpect(replayed.distinctCells, game.playerSearched.size());
+  }
+
+  // tests for the MoveLog
+  void testMoveLog(Tester t) {
+    MoveLog log = new MoveLog(6);
+    String typed = "RDLUUDR";
+    for (byte dir : MoveReplayer.parse(typed)) {
+      log.add(dir);
+    }
+    t.checkExpect(log.length(), 6);
+    t.checkExpect(log.toString(), "RDLUUD");
+    t.checkExpect(log.dropped, 1L);
+    t.checkExpect(log.isComplete(), false);
+    t.checkExpect(log.codes.length <= 2, true);
+    t.checkExpect(log.direction(4), MazeGrid.NORTH);
+    t.checkExpect(log.charAt(5), 'D');
+    t.checkExpect(log.subSequence(1, 3).toString(), "DL");
+    t.checkExpect(Arrays.equals(log.toMoves(), MoveReplayer.parse("RDLUUD")), true);
+    t.checkException(new IndexOutOfBoundsException("Move 6 is outside the log"), log,
+        "direction", 6);
+    MoveLog roomy = new MoveLog();
+    for (int i = 0; i < 1000; i++) {
+      roomy.add(MazeGrid.DIRECTIONS[i % 4]);
+    }
+    t.checkExpect(roomy.isComplete(), true);
+    t.checkExpect(roomy.codes.length, 256);
+  }
+
+  // tests for the SolutionCache
+  void testSolutionCache(Tester t) {
+    SearchResult small = new SearchResult(new int[] { 0, 1 }, new int[] { 0, 1 });
+    SearchResult large = new SearchResult(new int[40], new int[10]);
+    SolutionCache cache = new SolutionCache(350);
+    cache.put("a", small);
+    cache.put("b", small);
+    t.checkExpect(cache.bytes, 2 * SolutionCache.bytesOf(small));
+    t.checkExpect(cache.get("a"), small);
+    cache.put("c", large);
+    // "b" was used least recently, so it goes first
+    t.checkExpect(cache.get("b"), null);
+    t.checkExpect(cache.get("a"), small);
+    t.checkExpect(cache.bytes <= 350, true);
+    t.checkExpect(cache.hits, 2L);
+    t.checkExpect(cache.misses, 1L);
+    cache.put("huge", new SearchResult(new int[100], new int[0]));
+    t.checkExpect(cache.get("huge"), null);
+    cache.clear();
+    t.checkExpect(cache.bytes, 0L);
+  }
+
+  // test that games reuse cached solutions for the same maze
+  void testCachedSearch(Tester t) {
+    MazeGame.SOLUTIONS.clear();
+    MazeGame game = new MazeGame(20, 12, 77);
+    t.checkExpect(game.mazeKey, "kruskal:77:20x12");
+    game.search(false);
+    SearchResult cached = MazeGame.SOLUTIONS.get("kruskal:77:20x12:bfs");
+    t.checkExpect(cached.path.length, game.correctPath.length);
+    MazeGame same = new MazeGame(20, 12, 77);
+    same.onKeyEvent("b");
+    // the cached search is replayed instead of stepped
+    t.checkExpect(same.stepper, null);
+    t.checkExpect(same.searched.size(), cached.order.length);
+    same.onKeyEvent("d");
+    while (same.stepper != null) {
+      same.onTick();
+    }
+    t.checkExpect(MazeGame.SOLUTIONS.get("kruskal:77:20x12:dfs").order.length,
+        same.searched.size());
+    initData();
+    t.checkExpect(this.exampleWorld.mazeKey, null);
+    // the tile size is part of the key, so mazes with different tiles aren't confused
+    t.checkExpect(new MazeGame(5, 5, 1, new TileGenerator(2, ForkJoinPool.commonPool())).mazeKey,
+        "tile2:1:5x5");
+    t.checkExpect(Algorithms.generator("tile2") instanceof TileGenerator, true);
+    t.checkExpect(((TileGenerator) Algorithms.generator("tile2")).tileSize, 2);
+    t.checkException(new IllegalArgumentException("Unknown generator tile0, expected one of "
+        + Algorithms.GENERATORS), new Algorithms(), "generator", "tile0");
+  }
+
+  // tests for the MazePrefetcher
+  void testMazePrefetcher(Tester t) {
+    MazePrefetcher prefetcher = new MazePrefetcher(new KruskalGenerator(), 20, 12,
+        new Random(5), 2);
+    prefetcher.fill();
+    t.checkExpect(prefetcher.queue.size(), 2);
+    Random seeds = new Random(5);
+    PreparedMaze first = prefetcher.next();
+    t.checkExpect(first.seed, seeds.nextLong());
+    t.checkExpect(Arrays.equals(first.grid.walls,
+        new KruskalGenerator().generate(20, 12, first.seed).walls), true);
+    t.checkExpect(first.grid.passageCount(), 239L);
+    t.checkExpect(prefetcher.queue.size(), 2);
+    t.checkExpect(prefetcher.next().seed, seeds.nextLong());
+    prefetcher.clear();
+    t.checkExpect(prefetcher.queue.size(), 0);
+    // with nothing queued the next maze is made straight away, and the queue refilled
+    t.checkExpect(prefetcher.next().grid.passageCount(), 239L);
+    t.checkExpect(prefetcher.queue.size(), 2);
+    prefetcher.clear();
+  }
+
+  // test that a large game resets to its prefetched maze
+  void testPrefetchedReset(Tester t) {
+    MazeGame game = new MazeGame(100, 100, 6);
+    t.checkExpect(game.prefetcher.queue.size(), 1);
+    game.onKeyEvent("r");
+    t.checkExpect(game.seed, new Random(6).nextLong());
+    t.checkExpect(Arrays.equals(game.grid.walls,
+        new KruskalGenerator().generate(100, 100, game.seed).walls), true);
+    t.checkExpect(game.board().get(99).get(99).edges.isEmpty(), false);
+    t.checkExpect(game.prefetcher.queue.size(), 1);
+    game.prefetcher.clear();
+  }
+
+  // test for gameMessage
+  void testGameMessage(Tester t) {
+    initData();
+    t.checkExpect(this.exampleWorld.gameMessage(), "The maze has not been solved :(");
+    t.checkExpect(this.exampleWorld.statusMessage(),
+        "The maze has not been solved :( 2 steps to the exit");
+    this.exampleWorld.onKeyEvent("right");
+    t.checkExpect(this.exampleWorld.statusMessage(),
+        "The maze has not been solved :( 1 steps to the exit");
+    this.exampleWorld.solved = true;
+    t.checkExpect(this.exampleWorld.gameMessage(), "The maze has been solved :)");
+    t.checkExpect(this.exampleWorld.statusMessage(), "The maze has been solved :)");
+  }
+
+  // test for onKeyEvent
+  void testOnKeyEvent(Tester t) {
+    initData();
+    t.checkExpect(this.owo.searched.size(), 0);
+    t.checkExpect(this.owo.correctPath.length, 0);
+    this.owo.onKeyEvent("d");
+    // the search runs a few cells per tick instead of all at once
+    t.checkExpect(this.owo.stepper.depthFirst, true);
+    while (this.owo.stepper != null) {
+      this.owo.onTick();
+    }
+    t.checkExpect(this.owo.searched.size() > 0, true);
+    t.checkExpect(this.owo.correctPath.length > 0, true);
+
+    initData();
+    t.checkExpect(this.owo.searched.size(), 0);
+    t.checkExpect(this.owo.correctPath.length, 0);
+    this.owo.onKeyEvent("b");
+    t.checkExpect(this.owo.stepper.depthFirst, false);
+    while (this.owo.stepper != null) {
+      this.owo.onTick();
+    }
+    t.checkExpect(this.owo.searched.size() > 0, true);
+    t.checkExpect(this.owo.correctPath.length > 0, true);
+
+    initData();
+    this.owo.onKeyEvent("a");
+    t.checkExpect(this.owo.correctPath.length > 0, true);
+    initData();
+    this.owo.onKeyEvent("t");
+    t.checkExpect(this.owo.correctPath.length > 0, true);
+
+    initData();
+    t.checkExpect(this.owo.searched.size(), 0);
+    t.checkExpect(this.owo.correctPath.length, 0);
+    t.checkExpect(this.owo.solved, false);
+    this.owo.onKeyEvent("r");
+    t.checkExpect(this.owo.searched.size(), 0);
+    t.checkExpect(this.owo.correctPath.length, 0);
+    t.checkExpect(this.owo.solved, false);
+
+    initData();
+    t.checkExpect(this.exampleWorld.playerSearched.size(), 1);
+    this.exampleWorld.current = this.exampleWorld.indexOf(this.exampleCell4);
+    this.exampleWorld.onKeyEvent("up");
+    t.checkExpect(this.exampleWorld.playerSearched.size(), 2);
+
+    initData();
+    t.checkExpect(this.exampleWorld.playerSearched.size(), 1);
+    this.exampleWorld.current = this.exampleWorld.indexOf(this.exampleCell2);
+    this.exampleWorld.onKeyEvent("down");
+    t.checkExpect(this.exampleWorld.playerSearched.size(), 2);
+
+    initData();
+    t.checkExpect(this.exampleWorld.playerSearched.size(), 1);
+    this.exampleWorld.current = this.exampleWorld.indexOf(this.exampleCell2);
+    this.exampleWorld.onKeyEvent("left");
+    // moving back to the start doesn't add it to the trail a second time
+    t.checkExpect(this.exampleWorld.current, this.exampleWorld.indexOf(this.exampleCell));
+    t.checkExpect(this.exampleWorld.playerSearched.size(), 1);
+
+    initData();
+    t.checkExpect(this.exampleWorld.playerSearched.size(), 1);
+    this.exampleWorld.current = this.exampleWorld.indexOf(this.exampleCell);
+    this.exampleWorld.onKeyEvent("right");
+    t.checkExpect(this.exampleWorld.playerSearched.size(), 2);
+
+    initData();
+    t.checkExpect(this.owo.searched.size(), 0);
+    t.checkExpect(this.owo.correctPath.length, 0);
+    this.owo.onKeyEvent("OWO UWU");
+    t.checkExpect(this.owo.searched.size(), 0);
+    t.checkExpect(this.owo.correctPath.length, 0);
+  }
+
+  // test for onTick
+  void testOnTick(Tester t) {
+    initData();
+    t.checkExpect(this.exampleWorld.solved, false);
+    this.exampleWorld.current = this.exampleWorld.indexOf(this.exampleCell4);
+    t.checkExpect(this.exampleWorld.solved, false);
+    this.exampleWorld.onTick();
+    t.checkExpect(this.exampleWorld.solved, true);
+  }
+
+  // tests for the MazeGrid index and neighbor arithmetic
+  void testMazeGridIndex(Tester t) {
+    MazeGrid grid = new MazeGrid(3, 2);
+    t.checkExpect(grid.size(), 6);
+    t.checkExpect(grid.index(2, 1), 5);
+    t.checkExpect(grid.xOf(5), 2);
+    t.checkExpect(grid.yOf(5), 1);
+    t.checkExpect(grid.neighbor(0, MazeGrid.EAST), 1);
+    t.checkExpect(grid.neighbor(0, MazeGrid.SOUTH), 3);
+    t.checkExpect(grid.neighbor(0, MazeGrid.WEST), -1);
+    t.checkExpect(grid.neighbor(0, MazeGrid.NORTH), -1);
+    t.checkExpect(grid.neighbor(2, MazeGrid.EAST), -1);
+    t.checkExpect(grid.neighbor(5, MazeGrid.SOUTH), -1);
+    t.checkExpect(grid.direction(4, 1), MazeGrid.NORTH);
+    t.checkExpect(grid.direction(0, 4), 0);
+  }
+
+  // tests for opening walls in a MazeGrid
+  void testMazeGridOpen(Tester t) {
+    MazeGrid grid = new MazeGrid(2, 2);
+    t.checkExpect(grid.isConnected(0, 1), false);
+    grid.connect(0, 1);
+    grid.open(1, MazeGrid.SOUTH);
+    t.checkExpect(grid.isConnected(0, 1), true);
+    t.checkExpect(grid.isConnected(1, 0), true);
+    t.checkExpect(grid.isOpen(3, MazeGrid.NORTH), true);
+    t.checkExpect(grid.isConnected(0, 2), false);
+    t.checkExpect(grid.degree(1), 2);
+    t.checkExpect(grid.passageCount(), 2L);
+    t.checkExpect(grid.makeEdges(grid.makeBoard()).size(), 2);
+    grid.clear();
+    t.checkExpect(grid.passageCount(), 0L);
+  }
+
+  // tests for freezing a grid
+  void testImmutableMazeGrid(Tester t) {
+    MazeGrid grid = new MazeGrid(2, 2);
+    grid.connect(0, 1);
+    grid.connect(1, 3);
+    ImmutableMazeGrid frozen = grid.freeze();
+    t.checkExpect(frozen.isConnected(1, 0), true);
+    t.checkExpect(frozen.isOpen(3, MazeGrid.NORTH), true);
+    t.checkExpect(frozen.passageCount(), 2L);
+    t.checkExpect(frozen.freeze() == frozen, true);
+    grid.connect(0, 2);
+    t.checkExpect(frozen.isConnected(0, 2), false);
+    t.checkException(new UnsupportedOperationException("A frozen maze is read only"), frozen,
+        "open", 0, MazeGrid.SOUTH);
+    t.checkException(new UnsupportedOperationException("A frozen maze is read only"), frozen,
+        "clear");
+  }
+
+  // test that the game grid matches its edges
+  void testGameGrid(Tester t) {
+    initData();
+    t.checkExpect(this.owo.grid.passageCount(), 239L);
+    t.checkExpect(this.exampleWorld.grid.isConnected(0, 1), true);
+    t.checkExpect(this.exampleWorld.grid.isConnected(1, 3), true);
+    t.checkExpect(this.exampleWorld.grid.isConnected(0, 2), false);
+  }
+
+  // tests for the headless BatchRunner
+  void testBatchRunner(Tester t) throws InterruptedException {
+    BatchRunner runner = BatchRunner.fromArgs(new String[] { "width=12", "height=8", "count=5",
+        "seed=3", "solver=astar", "threads=2" });
+    t.checkExpect(runner.width, 12);
+    t.checkExpect(runner.json, false);
+    BatchResult result = runner.runOne(3);
+    t.checkExpect(result.pathLength,
+        new BfsSolver().solve(new KruskalGenerator().generate(12, 8, 3), 0, 95).path.length);
+    t.checkExpect(result.toCsv().startsWith("3,12,8,"), true);
+    t.checkExpect(result.toJson().startsWith("{\"seed\":3,\"width\":12,"), true);
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    runner.run(new PrintStream(bytes));
+    String[] lines = bytes.toString().split("\n");
+    t.checkExpect(lines.length, 6);
+    t.checkExpect(lines[0], BatchResult.CSV_HEADER);
+
+    BatchRunner measured = BatchRunner.fromArgs(new String[] { "width=12", "height=8",
+        "count=3", "seed=3", "analytics=true", "format=json" });
+    BatchResult analyzed = measured.runOne(3);
+    t.checkExpect(analyzed.analytics.solutionLength, result.pathLength);
+    t.checkExpect(analyzed.toJson().contains(",\"diameter\":"), true);
+    t.checkExpect(result.analytics, null);
+    t.checkExpect(BatchResult.header(true),
+        BatchResult.CSV_HEADER + ",diameter,deadEnds,junctions,solutionLength,solutionShare");
+    t.checkException(new IllegalArgumentException("Unknown solver bogo, expected one of "
+        + Algorithms.SOLVERS), new Algorithms(), "solver", "bogo");
+  }
+
+  // tests for the MazeAnalytics
+  void testMazeAnalytics(Tester t) {
+    MazeGrid grid = new KruskalGenerator().generate(40, 25, 9);
+    int exit = grid.size() - 1;
+    MazeAnalytics analytics = new MazeAnalytics(grid, 0, exit);
+    PathIndex index = new PathIndex(grid);
+    t.checkExpect(analytics.distance[exit], 0);
+    t.checkExpect(analytics.distance[0], index.distance(0, exit));
+    t.checkExpect(analytics.distance[517], index.distance(517, exit));
+    t.checkExpect(analytics.solutionLength,
+        new BfsSolver().solve(grid, 0, exit).path.length);
+    t.checkExpect(analytics.diameter,
+        index.distance(analytics.diameterStart, analytics.diameterEnd));
+    // no two cells are further apart than the ends of the diameter
+    boolean longest = true;
+    for (int c = 0; c < grid.size(); c += 37) {
+      for (int d = 0; d < grid.size(); d += 41) {
+        longest = longest && index.distance(c, d) <= analytics.diameter;
+      }
+    }
+    t.checkExpect(longest, true);
+    int cells = 0;
+    int ends = 0;
+    for (int c = 0; c < grid.size(); c++) {
+      if (grid.degree(c) == 1) {
+        ends++;
+      }
+    }
+    for (int count : analytics.degreeHistogram) {
+      cells += count;
+    }
+    t.checkExpect(cells, grid.size());
+    t.checkExpect(analytics.deadEnds(), ends);
+    t.checkExpect(analytics.solutionShare() > 0 && analytics.solutionShare() <= 1, true);
+
+    MazeGrid corridor = new MazeGrid(4, 1);
+    corridor.connect(0, 1);
+    corridor.connect(1, 2);
+    MazeAnalytics split = new MazeAnalytics(corridor, 0, 2);
+    t.checkExpect(split.distance[3], -1);
+    t.checkExpect(split.diameter, 2);
+    t.checkExpect(split.toCsv(), "2,2,0,3,1.0000");
+    t.checkExpect(new MazeAnalytics(corridor, 3, 2).solutionLength, 0);
+
+    initData();
+    this.owo.search(false);
+    t.checkExpect(new MazeAnalytics(this.owo.grid, 0, this.owo.grid.size() - 1).solutionLength,
+        this.owo.correctPath.length);
+    t.checkExpect(this.owo.distanceToExit(), this.owo.correctPath.length - 1);
+  }
+
+  // tests for the BitboardBfs and BitboardSolver
+  void testBitboardBfs(Tester t) {
+    // widths on either side of a word boundary, so southward moves carry across words
+    for (int width : new int[] { 7, 63, 64, 65, 130 }) {
+      MazeGrid grid = new KruskalGenerator().generate(width, 9, width);
+      int goal = grid.size() - 1;
+      BitboardBfs bfs = new BitboardBfs(grid);
+      MazeAnalytics analytics = new MazeAnalytics(grid, 0, goal);
+      t.checkExpect(Arrays.equals(bfs.distances(goal), analytics.distance), true);
+      t.checkExpect(bfs.floodCount(analytics.diameterStart), (long) grid.size());
+      t.checkExpect(bfs.levels, analytics.diameter);
+      SearchResult bitboard = new BitboardSolver().solve(grid, 0, goal);
+      t.checkExpect(bitboard.path.length, new BfsSolver().solve(grid, 0, goal).path.length);
+      t.checkExpect(this.isValidPath(grid, bitboard.path, 0, goal), true);
+    }
+
+    MazeGrid open = new MazeGrid(3, 3);
+    for (int i = 0; i < 9; i++) {
+      if (i % 3 < 2) {
+        open.connect(i, i + 1);
+      }
+      if (i < 6) {
+        open.connect(i, i + 3);
+      }
+    }
+    BitboardBfs bfs = new BitboardBfs(open);
+    t.checkExpect(Arrays.equals(bfs.distances(4), new int[] { 2, 1, 2, 1, 0, 1, 2, 1, 2 }),
+        true);
+    t.checkExpect(bfs.search(4, 0, null, false), 2);
+    t.checkExpect(bfs.reached, 9L);
+    t.checkExpect(bfs.search(4, 4, null, false), 0);
+    // a traced search keeps only two bits a cell to walk the path back with
+    t.checkExpect(bfs.search(0, 8, null, true), 4);
+    t.checkExpect(bfs.third(4), 2);
+    t.checkExpect(bfs.third(8), 1);
+    t.checkExpect(this.isValidPath(open, bfs.pathTo(8, 4), 0, 8), true);
+    t.checkExpect(bfs.thirdLow.length, 1);
+
+    MazeGrid walled = new MazeGrid(3, 1);
+    walled.connect(0, 1);
+    t.checkExpect(new BitboardBfs(walled).floodCount(0), 2L);
+    SearchResult stuck = new BitboardSolver().solve(walled, 0, 2);
+    t.checkExpect(stuck.found(), false);
+    t.checkExpect(stuck.order.length, 2);
+    t.checkExpect(Algorithms.solverName(new BitboardSolver()), null);
+    t.checkException(new IllegalArgumentException("Unknown solver bitboard, expected one of "
+        + Algorithms.SOLVERS), new Algorithms(), "solver", "bitboard");
+  }
+
+  // tests for the MazeBenchmark harness
+  void testMazeBenchmark(Tester t) {
+    MazeBenchmark bench = new MazeBenchmark(1, 2, 42);
+    long lookups = MazeGame.SOLUTIONS.hits + MazeGame.SOLUTIONS.misses;
+    ArrayList<BenchmarkResult> results = bench.run(10, 6);
+    // every search is timed for real, never served from the solution cache
+    t.checkExpect(MazeGame.SOLUTIONS.hits + MazeGame.SOLUTIONS.misses, lookups);
+    t.checkExpect(results.size(), 9);
+    t.checkExpect(results.get(0).name, "makeBoard");
+    t.checkExpect(results.get(5).name, "searchJunction");
+    t.checkExpect(results.get(6).name, "searchBitboard");
+    t.checkExpect(results.get(8).name, "onTick");
+    t.checkExpect(results.get(2).nanosPerOp > 0, true);
+    t.checkExpect(bench.sink instanceof WorldScene, true);
+    t.checkExpect(new BenchmarkResult("searchJunction", 10, 6, 1e6, 8).toString()
+        .indexOf("10x6"), new BenchmarkResult("kruskal", 10, 6, 1e6, 8).toString()
+        .indexOf("10x6"));
+    t.checkException(new IllegalArgumentException("Unknown benchmark sort"), bench, "run",
+        "sort", 10, 6);
+    // the object view benchmarks are left out of sizes too large for the default heap
+    t.checkExpect(bench.namesFor(2048, 2048).size(), 9);
+    t.checkExpect(bench.namesFor(4096, 4096).size(), 6);
+    t.checkExpect(bench.namesFor(4096, 4096).get(0), "searchDfs");
+  }
+
+  // tests for the RegressionGate
+  void testRegressionGate(Tester t) {
+    ArrayList<GateBudget> budgets = new ArrayList<GateBudget>();
+    budgets.add(new GateBudget(30, 20, Long.MAX_VALUE, Long.MAX_VALUE, Long.MAX_VALUE));
+    ArrayList<String> generators = new ArrayList<String>(Arrays.asList("kruskal", "eller"));
+    ArrayList<String> solvers = new ArrayList<String>(Arrays.asList(
+        Algorithms.SOLVERS.split(", ")));
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    RegressionGate gate = new RegressionGate(budgets, generators, solvers, 4);
+    t.checkExpect(gate.run(new PrintStream(bytes)), true);
+    t.checkExpect(gate.failures.size(), 0);
+    t.checkExpect(bytes.toString().split("\n").length, 12);
+
+    budgets.set(0, new GateBudget(30, 20, -1, Long.MAX_VALUE, Long.MAX_VALUE));
+    t.checkExpect(gate.run(new PrintStream(new ByteArrayOutputStream())), false);
+    t.checkExpect(gate.failures.size(), 2);
+    t.checkExpect(gate.failures.get(0).startsWith("kruskal 30x20 generate took"), true);
+
+    t.checkExpect(RegressionGate.fromArgs(new String[] { "max=1000000" }).budgets.size(), 2);
+    t.checkExpect(RegressionGate.fromArgs(new String[] {}).solvers, solvers);
+    t.checkException(new IllegalArgumentException("Unknown argument size=3"),
+        new RegressionGate(budgets, generators, solvers, 0), "fromArgs",
+        (Object) new String[] { "size=3" });
+
+    MazeGrid cycle = new MazeGrid(2, 2);
+    cycle.connect(0, 1);
+    cycle.connect(1, 3);
+    cycle.connect(3, 2);
+    t.checkExpect(RegressionGate.checkTree(cycle), null);
+    cycle.connect(2, 0);
+    t.checkExpect(RegressionGate.checkTree(cycle),
+        "the passage east of cell 2 closes a cycle");
+    MazeGrid split = new MazeGrid(2, 2);
+    split.connect(0, 1);
+    t.checkExpect(RegressionGate.checkTree(split), "the cells form 3 disconnected parts");
+
+    MazeGrid grid = new KruskalGenerator().generate(6, 4, 2);
+    SearchResult reference = new BfsSolver().solve(grid, 0, 23);
+    t.checkExpect(RegressionGate.checkSolution(grid, reference, reference, 0, 23), null);
+    int[] wrong = Arrays.copyOf(reference.path, reference.path.length);
+    wrong[1] = wrong[0];
+    t.checkExpect(RegressionGate.checkSolution(grid, new SearchResult(new int[0], wrong),
+        reference, 0, 23), "the path steps through a wall from 0 to 0");
+    t.checkExpect(RegressionGate.checkSolution(grid, new SearchResult(new int[0], new int[0]),
+        reference, 0, 23), "no path was found");
+  }
+
+  // tests for the MazePool
+  void testMazePool(Tester t) {
+    MazePool pool = new MazePool(2);
+    PooledMaze first = pool.get("kruskal", 20, 12, 4);
+    t.checkExpect(pool.get("kruskal", 20, 12, 4) == first, true);
+    t.checkExpect(first.key, "kruskal:4:20x12");
+    t.checkExpect(first.grid.passageCount(),
+        new KruskalGenerator().generate(20, 12, 4).passageCount());
+    t.checkExpect(first.pathIndex() == first.pathIndex(), true);
+    pool.get("eller", 20, 12, 4);
+    pool.get("kruskal", 20, 12, 5);
+    t.checkExpect(pool.size(), 2);
+    t.checkExpect(pool.get("kruskal", 20, 12, 4) == first, false);
+    t.checkExpect(pool.generated, 4L);
+    t.checkExpect(pool.shared, 1L);
+    t.checkException(new IllegalArgumentException("Maze dimensions must be positive"), pool,
+        "get", "kruskal", 0, 12, 4L);
+
+    // the pool also keeps its grids and path indexes under a budget of bytes
+    PooledMaze small = new MazePool(1).get("kruskal", 20, 12, 4);
+    t.checkExpect(small.charged, 64L + 240);
+    t.checkExpect(small.pathIndex().bytes(), 4L * 240 * 9);
+    t.checkExpect(small.charged, 64L + 240 + 4 * 240 * 9);
+    long index = 4L * 240 * 9;
+    MazePool tight = new MazePool(8, 2 * (64L + 240) + index);
+    PooledMaze indexed = tight.get("kruskal", 20, 12, 1);
+    tight.get("kruskal", 20, 12, 2);
+    tight.get("kruskal", 20, 12, 3);
+    t.checkExpect(tight.size(), 3);
+    t.checkExpect(tight.bytes, 3 * (64L + 240));
+    // building an index makes room for it by dropping the least recently used maze
+    indexed.pathIndex();
+    t.checkExpect(tight.size(), 2);
+    t.checkExpect(tight.bytes, 2 * (64L + 240) + index);
+    t.checkExpect(tight.get("kruskal", 20, 12, 1) == indexed, true);
+    tight.get("kruskal", 20, 12, 4);
+    t.checkExpect(tight.size(), 2);
+    t.checkExpect(tight.get("kruskal", 20, 12, 1) == indexed, true);
+    t.checkExpect(tight.get("kruskal", 20, 12, 3).charged, 64L + 240);
+    // a maze whose index doesn't fit at all is dropped, but still answers the request
+    MazePool none = new MazePool(8, 1000);
+    PooledMaze alone = none.get("kruskal", 20, 12, 1);
+    t.checkExpect(alone.pathIndex().distance(0, 0), 0);
+    t.checkExpect(none.size(), 0);
+    t.checkExpect(none.bytes, 0L);
+  }
+
+  // tests for the MazeService
+  void testMazeService(Tester t) throws IOException {
+    MazeService service = new MazeService(0, 2, 8);
+    HashMap<String, String> query = MazeService.query("width=20&height=12&seed=4&solver=astar");
+    t.checkExpect(query.get("solver"), "astar");
+    t.checkExpect(MazeService.query("generator=kruskal%2C").get("generator"), "kruskal,");
+    String solved = service.solve(query);
+    SearchResult astar = new AStarSolver().solve(new KruskalGenerator().generate(20, 12, 4), 0,
+        239);
+    t.checkExpect(solved.startsWith("{\"solver\":\"astar\",\"found\":true,\"expanded\":"
+        + astar.order.length), true);
+    t.checkExpect(solved.endsWith(MazeService.toJson(astar.path) + "}"), true);
+    t.checkExpect(service.solve(query).contains("\"cached\":true"), true);
+    t.checkExpect(service.path(MazeService.query("seed=4&from=5&to=5")),
+        "{\"distance\":0,\"path\":[5]}");
+    t.checkExpect(service.generate(MazeService.query("width=4&height=1")).contains(
+        "\"passages\":3,\"cells\":\"FQ==\""), true);
+    t.checkException(new IllegalArgumentException("Cell goal is off the board"), service,
+        "solve", MazeService.query("goal=240"));
+    t.checkException(new IllegalArgumentException("Mazes are limited to 1000000 cells"),
+        service, "generate", MazeService.query("width=2000&height=2000"));
+    t.checkExpect(MazeService.error("a \"b\""), "{\"error\":\"a \\\"b\\\"\"}");
+
+    service.start();
+    try {
+      String base = "http://localhost:" + service.port();
+      HttpURLConnection ok = (HttpURLConnection) URI.create(base + "/path?seed=4&from=0&to=1")
+          .toURL().openConnection();
+      t.checkExpect(ok.getResponseCode(), 200);
+      t.checkExpect(new String(ok.getInputStream().readAllBytes(), StandardCharsets.UTF_8),
+          service.path(MazeService.query("seed=4&from=0&to=1")));
+      HttpURLConnection bad = (HttpURLConnection) URI.create(base + "/solve?solver=bogo")
+          .toURL().openConnection();
+      t.checkExpect(bad.getResponseCode(), 400);
+      HttpURLConnection missing = (HttpURLConnection) URI.create(base + "/solver")
+          .toURL().openConnection();
+      t.checkExpect(missing.getResponseCode(), 404);
+    }
+    finally {
+      service.stop();
+    }
+  }
+
+  // tests for saving and loading MazeFiles
+  void testMazeFile(Tester t) throws IOException {
+    Path path = Files.createTempFile("maze", ".bin");
+    MazeGrid grid = new KruskalGenerator().generate(13, 7, 21);
+    MazeFile.save(grid, 21, new KruskalGenerator(), path);
+    t.checkExpect(Files.size(path), 24L + 23);
+    MappedMazeGrid mapped = MazeFile.load(path);
+    t.checkExpect(mapped.width, 13);
+    t.checkExpect(mapped.height, 7);
+    t.checkExpect(mapped.seed, 21L);
+    t.checkExpect(mapped.generator, "kruskal");
+    t.checkExpect(Arrays.equals(mapped.copy().walls, grid.walls), true);
+    t.checkExpect(mapped.degree(50), grid.degree(50));
+    t.checkExpect(mapped.passageCount(), 90L);
+    t.checkExpect(Arrays.equals(new BfsSolver().solve(mapped, 0, 90).path,
+        new BfsSolver().solve(grid, 0, 90).path), true);
+    t.checkException(new UnsupportedOperationException("A mapped maze is read only"), mapped,
+        "clear");
+
+    MazeFileSink sink = new MazeFileSink(path, 13, 7, 5, new EllerGenerator());
+    new EllerGenerator().stream(13, 7, 5, sink);
+    sink.close();
+    t.checkExpect(Arrays.equals(MazeFile.load(path).copy().walls,
+        new EllerGenerator().generate(13, 7, 5).walls), true);
+
+    // the tile size is kept in the header, and in the generator's name
+    MazeFile.save(grid, 21, new TileGenerator(4, ForkJoinPool.commonPool()), path);
+    t.checkExpect(MazeFile.load(path).generator, "tile4");
+    MazeFile.save(grid, 21, new TileGenerator(), path);
+    t.checkExpect(MazeFile.load(path).generator, "tile");
+    t.checkExpect(MazeFile.generatorName(3, 0), "tile");
+    t.checkExpect(MazeFile.generatorName(9, 0), "unknown");
+    t.checkExpect(MazeFile.generatorId(new TileGenerator(70000, ForkJoinPool.commonPool())),
+        (byte) 0);
+
+    MazeGame game = new MazeGame(20, 12, 3);
+    game.saveMaze(path);
+    MazeGame other = new MazeGame(4, 4, 9);
+    other.loadMaze(path);
+    t.checkExpect(other.width, 20);
+    t.checkExpect(other.seed, 3L);
+    // the game plays straight from the file, and draws it as a 20x12 maze
+    t.checkExpect(other.grid instanceof MappedMazeGrid, true);
+    t.checkExpect(Arrays.equals(other.grid.copy().walls, game.grid.walls), true);
+    t.checkExpect(other.grid.passageCount(), 239L);
+    t.checkExpect(other.renderer instanceof SceneRenderer, true);
+    other.onKeyEvent(other.grid.isOpen(0, MazeGrid.EAST) ? "right" : "down");
+    other.onKeyEvent("b");
+    while (other.stepper != null) {
+      other.onTick();
+    }
+    t.checkExpect(other.correctPath.length, game.route().distance(0) + 1);
+    other.makeScene();
+    // saving over the file the game is playing from keeps the maze intact
+    other.saveMaze(path);
+    t.checkExpect(Arrays.equals(MazeFile.load(path).copy().walls, game.grid.walls), true);
+
+    Path large = Files.createTempFile("maze", ".bin");
+    new MazeGame(400, 100, 2).saveMaze(large);
+    other.loadMaze(large);
+    t.checkExpect(other.renderer instanceof ViewportRenderer, true);
+    other.makeScene();
+    new MazeGame(100, 100, 2).saveMaze(large);
+    other.loadMaze(large);
+    t.checkExpect(other.renderer instanceof RasterRenderer, true);
+    other.prefetcher.clear();
+    Files.delete(large);
+
+    // an edited maze is saved without its generator, so loading it can't find the
+    // searches cached for the maze it was made from
+    MazeGame edited = new MazeGame(20, 12, 3);
+    edited.search(new BfsSolver());
+    t.checkExpect(MazeGame.SOLUTIONS.get(edited.solutionKey("bfs")) != null, true);
+    edited.edges = new KruskalGenerator().generate(20, 12, 99).makeEdges(edited.board());
+    edited.connectEdgesToCells();
+    edited.saveMaze(path);
+    t.checkExpect(MazeFile.load(path).generator, "unknown");
+    other.loadMaze(path);
+    t.checkExpect(other.mazeKey, null);
+    t.checkExpect(other.solutionKey("bfs"), null);
+    other.search(new BfsSolver());
+    t.checkExpect(this.isValidPath(other.grid, MazeGame.reversed(other.correctPath), 0,
+        other.grid.size() - 1), true);
+    t.checkExpect(Arrays.equals(MazeGame.reversed(other.correctPath),
+        new BfsSolver().solve(edited.grid, 0, edited.grid.size() - 1).path), true);
+
+    Files.write(path, new byte[] { 1, 2, 3 });
+    t.checkException(new IOException("Not a maze file: " + path), new MazeFile(), "load", path);
+    Files.delete(path);
+  }
+
+  // tests for the SearchTrace
+  void testSearchTrace(Tester t) throws IOException {
+    MazeGrid grid = new KruskalGenerator().generate(120, 90, 6);
+    int[] bfs = new BfsSolver().solve(grid, 0, grid.size() - 1).order;
+    int[] dfs = new DfsSolver().solve(grid, 0, grid.size() - 1).order;
+    SearchTrace bfsTrace = SearchTrace.of(grid, bfs);
+    SearchTrace dfsTrace = SearchTrace.of(grid, dfs);
+    t.checkExpect(Arrays.equals(bfsTrace.toArray(), bfs), true);
+    t.checkExpect(Arrays.equals(dfsTrace.toArray(), dfs), true);
+    t.checkExpect(bfsTrace.size(), bfs.length);
+    // a depth first search mostly steps between neighbors, so it packs into well under
+    // a byte a step, and even breadth first beats an int a step
+    t.checkExpect(dfsTrace.bytes() < dfs.length, true);
+    t.checkExpect(bfsTrace.bytes() < 4L * bfs.length, true);
+    t.checkExpect(bfsTrace.get(0), 0);
+    t.checkExpect(bfsTrace.get(5000), bfs[5000]);
+    t.checkExpect(dfsTrace.get(dfs.length - 1), dfs[dfs.length - 1]);
+    TraceCursor cursor = dfsTrace.cursor();
+    cursor.seek(SearchTrace.CHECKPOINT + 7);
+    t.checkExpect(cursor.nextInt(), dfs[SearchTrace.CHECKPOINT + 7]);
+    cursor.seek(dfs.length);
+    t.checkExpect(cursor.hasNext(), false);
+    t.checkException(new IndexOutOfBoundsException("Step -1 is outside the trace"), cursor,
+        "seek", -1);
+
+    // going straight back and stepping off the side of the board are both jumps
+    SearchTrace jumps = new SearchTrace(3, 3);
+    for (int cell : new int[] { 2, 3, 4, 3, 0, 8, 1 }) {
+      jumps.add(cell);
+    }
+    t.checkExpect(Arrays.equals(jumps.toArray(), new int[] { 2, 3, 4, 3, 0, 8, 1 }), true);
+    t.checkException(new IllegalArgumentException("Cell 9 is off the board"), jumps, "add", 9);
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    bfsTrace.write(new DataOutputStream(bytes));
+    SearchTrace read = SearchTrace.read(new DataInputStream(new ByteArrayInputStream(
+        bytes.toByteArray())));
+    t.checkExpect(Arrays.equals(read.toArray(), bfs), true);
+    t.checkExpect(read.get(SearchTrace.CHECKPOINT + 1), bfs[SearchTrace.CHECKPOINT + 1]);
+    read.add(bfs[0]);
+    t.checkExpect(read.get(bfs.length), bfs[0]);
+
+    Path file = Files.createTempFile("maze", ".trace");
+    try {
+      initData();
+      this.owo.onKeyEvent("d");
+      while (this.owo.stepper != null) {
+        this.owo.onTick();
+      }
+      int[] order = this.owo.searched.toArray();
+      this.owo.saveTrace(file);
+      this.owo.onKeyEvent("h");
+      this.owo.loadTrace(file);
+      t.checkExpect(Arrays.equals(this.owo.searched.toArray(), order), true);
+      t.checkExpect(this.owo.searchedCounter, 0);
+      this.owo.seekSearch(order.length + 10);
+      this.owo.makeScene();
+      t.checkExpect(this.owo.renderer.drawnSearched, order.length);
+      this.owo.seekSearch(3);
+      this.owo.makeScene();
+      t.checkExpect(this.owo.renderer.drawnSearched, 3);
+      t.checkException(new IllegalArgumentException("The trace is for a 20x12 maze"),
+          this.exampleWorld, "loadTrace", file);
+    }
+    finally {
+      Files.delete(file);
+    }
+  }
+
+  // tests for MazeMetrics
+  void testMazeMetrics(Tester t) {
+    boolean wasEnabled = MazeMetrics.enabled;
+    MazeMetrics.enabled = false;
+    MazeMetrics.reset();
+    t.checkExpect(MazeMetrics.start(), MazeMetrics.DISABLED);
+    new MazeGame(20, 12, 1).search(false);
+    t.checkExpect(MazeMetrics.snapshot().counts[MazeMetrics.SEARCH], 0L);
+
+    MazeMetrics.enabled = true;
+    MazeGame.SOLUTIONS.clear();
+    MazeGame game = new MazeGame(20, 12, 1);
+    game.search(false);
+    game.makeScene();
+    game.onTick();
+    MetricsSnapshot snapshot = MazeMetrics.snapshot();
+    t.checkExpect(snapshot.counts[MazeMetrics.GENERATE], 1L);
+    // the cell view is only built when something asks for it
+    t.checkExpect(snapshot.counts[MazeMetrics.CONNECT], 0L);
+    t.checkExpect(game.board().size(), 20);
+    t.checkExpect(game.edges.size(), 239);
+    t.checkExpect(MazeMetrics.snapshot().counts[MazeMetrics.CONNECT], 1L);
+    t.checkExpect(snapshot.counts[MazeMetrics.SEARCH], 1L);
+    t.checkExpect(snapshot.counts[MazeMetrics.RENDER], 1L);
+    t.checkExpect(snapshot.counts[MazeMetrics.TICK], 1L);
+    t.checkExpect(snapshot.unions, 239L);
+    t.checkExpect(snapshot.unionAttempts >= 239, true);
+    t.checkExpect(snapshot.lastExpanded, (long) game.searched.size());
+    t.checkExpect(snapshot.meanNanos(MazeMetrics.KRUSKAL), 0.0);
+    t.checkExpect(snapshot.toString().startsWith("generate"), true);
+    game.onKeyEvent("m");
+    t.checkExpect(game.statusMessage().startsWith("search "), true);
+    t.checkExpect(game.statusMessage().endsWith(" ms mean"), true);
+    game.onKeyEvent("right");
+    t.checkExpect(game.statusMessage().startsWith("The maze has"), true);
+    MazeMetrics.enabled = false;
+    game.onKeyEvent("m");
+    t.checkExpect(game.statusMessage(), "Run with -Dmaze.metrics=true to record metrics");
+    MazeMetrics.reset();
+    t.checkExpect(MazeMetrics.snapshot().searches, 0L);
+    MazeMetrics.enabled = wasEnabled;
+  }
+
+  // test for BigBang
+  void testBigBang(Tester t) {
+    int width = 1100;
+    int height = 700;
+
+    MazeGame owo = new MazeGame(10, 6);
+    owo.bigBang(width, height, .00001);
+  }
+}